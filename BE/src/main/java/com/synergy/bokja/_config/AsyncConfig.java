@@ -0,0 +1,143 @@
+package com.synergy.bokja._config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 요청 스레드 밖에서 돌릴 작업용 스레드 풀 모음
+ * (JDK 17 기준이라 가상 스레드 대신 크기가 제한된 풀 사용)
+ */
+@Configuration
+public class AsyncConfig {
+
+    /** 상세/요약 조회 시 약품별 TTS 합성을 병렬로 처리 */
+    @Bean(name = "ttsExecutor")
+    public ThreadPoolTaskExecutor ttsExecutor(
+            @Value("${tts.fanout.pool-size:8}") int poolSize,
+            @Value("${tts.fanout.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tts-");
+        executor.initialize();
+        return executor;
+    }
+
+    /** 처방전 업로드 파이프라인 (OCR → 매칭 → LLM → 저장) */
+    @Bean(name = "uploadExecutor")
+    public ThreadPoolTaskExecutor uploadExecutor(
+            @Value("${medication.upload.pool-size:4}") int poolSize,
+            @Value("${medication.upload.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-");
+        executor.initialize();
+        return executor;
+    }
+
+    /** 업로드 3단계: 카테고리 / 약품별 안내 문구 (LLM) / 퀴즈 오답 후보 (DB) 동시 조회 */
+    @Bean(name = "generateExecutor")
+    public ThreadPoolTaskExecutor generateExecutor(
+            @Value("${medication.generate.pool-size:8}") int poolSize,
+            @Value("${medication.generate.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("generate-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 기본 @Scheduled 스케줄러 (spring.task.scheduling.* 설정 사용)
+     * 아래 전용 스케줄러를 빈으로 등록하면 Boot가 기본 스케줄러를 만들지 않으므로 같은 설정으로 직접 등록
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * 임대 잠금 heartbeat 전용 스케줄러
+     * 다른 예약 작업이 오래 걸려도 잠금 연장이 밀리지 않도록 (밀리면 ttl 후 다른 인스턴스가 같은 작업을 가져감)
+     */
+    @Bean(name = "leaseHeartbeatScheduler")
+    public ThreadPoolTaskScheduler leaseHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("lease-heartbeat-");
+        return scheduler;
+    }
+
+    /**
+     * 알림 outbox 디스패처 전용 스케줄러
+     * 전송 배치를 기다리는 동안 다른 예약 작업을 막지 않고, 일간 배치 등이 돌아도 푸시 전달이 멈추지 않도록
+     */
+    @Bean(name = "outboxDispatchScheduler")
+    public ThreadPoolTaskScheduler outboxDispatchScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-dispatch-");
+        return scheduler;
+    }
+
+    /**
+     * 일간 이벤트 배치 실행 (자정 cron / 수동 실행)
+     * 스케줄러·요청 스레드를 배치 내내 붙잡지 않도록 별도 스레드 1개에서 한 번에 하나씩 순서대로 실행
+     */
+    @Bean(name = "dailyBatchExecutor")
+    public ThreadPoolTaskExecutor dailyBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("daily-batch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 일간 이벤트 배치: 사용자 청크 병렬 처리
+     * (DailyEventBatchJob이 max-in-flight-chunks로 제출 수를 제한하므로 큐는 그 이상이면 거절되지 않음)
+     */
+    @Bean(name = "eventBatchExecutor")
+    public ThreadPoolTaskExecutor eventBatchExecutor(
+            @Value("${event.batch.pool-size:4}") int poolSize,
+            @Value("${event.batch.max-in-flight-chunks:8}") int maxInFlightChunks) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(Math.max(1, maxInFlightChunks));
+        executor.setThreadNamePrefix("event-batch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 알림 outbox 디스패처: 500건 배치를 병렬 전송 (배치마다 SKIP LOCKED로 서로 다른 행)
+     * 큐가 가득 차면 제출한 스레드(outboxDispatchScheduler)에서 직접 전송
+     */
+    @Bean(name = "fcmExecutor")
+    public ThreadPoolTaskExecutor fcmExecutor(
+            @Value("${fcm.send.pool-size:2}") int poolSize,
+            @Value("${fcm.send.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("fcm-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,287 @@
+package com.synergy.bokja.batch;
+
+import com.synergy.bokja.dto.fcm.AlarmSlotTarget;
+import com.synergy.bokja.dto.fcm.PushMessage;
+import com.synergy.bokja.entity.EventStatus;
+import com.synergy.bokja.repository.AlarmSlotDispatchRepository;
+import com.synergy.bokja.repository.EventRepository;
+import com.synergy.bokja.service.FcmService;
+import com.synergy.bokja.service.NotificationOutboxService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * 오늘의 알림 시각(슬롯)별 푸시 발송
+ * - 오늘 날짜(event_date)의 '발행' 알림 이벤트를 알림 시각(time_table)별로 묶어 시각 순 우선순위 큐로 메모리에 보관
+ *   (밀린 날짜를 재실행해 오늘 생성된 지난 날짜 이벤트는 제외)
+ *   슬롯 = (시각, uno → (토큰, 이벤트 목록))
+ * - tick마다 시각이 된 슬롯을 꺼내 사용자별 메시지 1건씩 outbox에 저장
+ *   available_at을 jitter-ms 안에서 무작위로 분산 → 같은 시각(예: 08시) 알림이 FCM에 한 번에 몰리지 않음
+ *   같은 트랜잭션에서 날짜별 워터마크(alarm_slot_dispatch_table)를 그 슬롯 시각까지 전진
+ *   outbox 등록이 실패하면 워터마크를 그대로 두고 슬롯을 큐에 되돌려 다음 tick에 다시 시도
+ *   (알림마다 (uno, 날짜, 시각) dedupe 키 → 재시도해도 outbox에 한 번만)
+ * - 여러 인스턴스 중 리더 잠금(alarm-slot-dispatcher)을 가진 한 곳만 큐를 유지하고 발송 (중복 발송 방지)
+ *   리더가 죽으면 잠금 만료 후 다른 인스턴스가 이어받아 DB 워터마크 이후 슬롯으로 큐를 새로 구성
+ *   (리더 교체 사이에 시각이 지난 슬롯도 바로 발송, 빠뜨리지 않음)
+ * - 큐 구성: 리더가 된 시점, 일간 배치 완료 후(EventBatchScheduler), 날짜가 바뀌었을 때, rebuild-interval-ms마다
+ *   (다른 인스턴스에서 처리된 배치 파티션 / 복약 시간 변경도 이 주기 안에 반영)
+ *   리더 인스턴스에서 복약 시간/조합이 바뀌면(AlarmSlotsChangedEvent) 커밋 후 해당 사용자 슬롯만 바로 다시 구성
+ * - 워터마크까지의 슬롯은 다시 넣지 않음 → 재기동/리더 교체 시 중복 발송 방지
+ */
+@Component
+@RequiredArgsConstructor
+public class AlarmSlotScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AlarmSlotScheduler.class);
+
+    private static final String LEADER_LOCK = "alarm-slot-dispatcher";
+
+    private final EventRepository eventRepository;
+    private final AlarmSlotDispatchRepository alarmSlotDispatchRepository;
+    private final FcmService fcmService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaseLockService leaseLockService;
+
+    @Value("${notification.alarm-slot.enabled:true}")
+    private boolean enabled;
+
+    // 슬롯 알림을 이 시간 안에 고르게 분산해서 전송
+    @Value("${notification.alarm-slot.jitter-ms:60000}")
+    private long jitterMs;
+
+    @Value("${notification.alarm-slot.rebuild-interval-ms:600000}")
+    private long rebuildIntervalMs;
+
+    private volatile LeaseLockService.Lease leadership;
+    private volatile long lastBuiltAt;
+
+    private final PriorityQueue<Slot> queue = new PriorityQueue<>(Comparator.comparing(slot -> slot.time));
+    private final Map<LocalTime, Slot> slots = new HashMap<>();
+
+    private LocalDate day;
+    private LocalTime dispatchedUpTo; // 이 시각까지의 슬롯은 outbox 등록이 커밋됨 (null이면 아직 없음, DB 워터마크와 같거나 앞섬)
+
+    /**
+     * 해당 날짜의 슬롯 큐 전체 재구성 (일간 배치 완료 후 호출, 리더가 아니면 무시)
+     */
+    public void rebuild(LocalDate runDate) {
+        if (!enabled || !isLeader()) return;
+        try {
+            List<AlarmSlotTarget> targets = eventRepository.findAlarmSlotTargets(
+                    EventStatus.발행, runDate, runDate.atStartOfDay(), runDate.plusDays(1).atStartOfDay());
+            LocalTime committed = alarmSlotDispatchRepository.findDispatchedUpTo(runDate).orElse(null);
+
+            int slotCount;
+            synchronized (this) {
+                if (!runDate.equals(day)) {
+                    day = runDate;
+                    dispatchedUpTo = committed;
+                } else {
+                    dispatchedUpTo = later(dispatchedUpTo, committed);
+                }
+                queue.clear();
+                slots.clear();
+                targets.forEach(this::add);
+                slotCount = slots.size();
+            }
+            lastBuiltAt = System.currentTimeMillis();
+            log.info("[AlarmSlotScheduler] {} 알림 슬롯 {}개 구성 (이벤트 {}건)", runDate, slotCount, targets.size());
+        } catch (Exception e) {
+            log.error("[AlarmSlotScheduler] 알림 슬롯 구성 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 복약 시간/조합 변경이 커밋된 뒤 해당 사용자의 남은 슬롯만 다시 구성
+     */
+    @TransactionalEventListener
+    public void onAlarmSlotsChanged(AlarmSlotsChangedEvent event) {
+        if (!enabled || !isLeader()) return;
+        Long uno = event.getUno();
+        try {
+            LocalDate today;
+            synchronized (this) {
+                today = day;
+            }
+            if (today == null) return;
+
+            List<AlarmSlotTarget> targets = eventRepository.findAlarmSlotTargetsByUno(
+                    uno, EventStatus.발행, today, today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+
+            synchronized (this) {
+                if (!today.equals(day)) return; // 그 사이 날짜가 바뀌어 전체 재구성됨
+                slots.values().forEach(slot -> slot.recipients.remove(uno));
+                targets.forEach(this::add);
+            }
+        } catch (Exception e) {
+            log.warn("[AlarmSlotScheduler] 알림 슬롯 갱신 실패 (uno={}): {}", uno, e.getMessage());
+        }
+    }
+
+    /**
+     * 시각이 된 슬롯 발송 (outbox에 저장)
+     */
+    @Scheduled(fixedDelayString = "${notification.alarm-slot.tick-interval-ms:30000}")
+    public void tick() {
+        if (!enabled || !ensureLeader()) return;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate current;
+        synchronized (this) {
+            current = day;
+        }
+        if (current != null && now.toLocalDate().isAfter(current)) {
+            // 자정 배치보다 먼저 날짜가 바뀐 경우: 일단 이미 만들어진 오늘 이벤트로 구성 (배치 완료 후 다시 구성됨)
+            rebuild(now.toLocalDate());
+        } else if (System.currentTimeMillis() - lastBuiltAt >= rebuildIntervalMs) {
+            rebuild(now.toLocalDate());
+        }
+
+        List<Slot> due = new ArrayList<>();
+        LocalDate dueDay;
+        synchronized (this) {
+            if (day == null || !day.equals(now.toLocalDate())) return;
+            dueDay = day;
+            while (!queue.isEmpty() && !queue.peek().time.isAfter(now.toLocalTime())) {
+                Slot slot = queue.poll();
+                slots.remove(slot.time);
+                due.add(slot);
+            }
+        }
+
+        // 시각 순으로 하나씩: 커밋된 슬롯까지만 워터마크 전진, 실패하면 남은 슬롯은 큐에 되돌림
+        for (int i = 0; i < due.size(); i++) {
+            Slot slot = due.get(i);
+            if (!isLeader() || !dispatch(dueDay, slot)) {
+                requeue(dueDay, due.subList(i, due.size()));
+                return;
+            }
+            markDispatched(dueDay, slot.time);
+        }
+    }
+
+    private boolean isLeader() {
+        LeaseLockService.Lease lease = leadership;
+        return lease != null && lease.isHeld();
+    }
+
+    // 리더 잠금 확인/획득. 새로 리더가 되면 DB 워터마크 이후 슬롯으로 큐 구성, 잃었으면 큐를 비움
+    private boolean ensureLeader() {
+        if (isLeader()) return true;
+
+        LeaseLockService.Lease lease = leaseLockService.tryAcquire(LEADER_LOCK);
+        if (lease == null) {
+            synchronized (this) {
+                if (leadership != null) {
+                    log.info("[AlarmSlotScheduler] 알림 슬롯 리더 잠금을 잃었습니다.");
+                    leadership = null;
+                }
+                queue.clear();
+                slots.clear();
+            }
+            return false;
+        }
+
+        synchronized (this) {
+            leadership = lease;
+            day = null; // rebuild에서 DB 워터마크로 시작
+            dispatchedUpTo = null;
+        }
+        log.info("[AlarmSlotScheduler] 알림 슬롯 리더가 되었습니다. ({})", leaseLockService.getOwner());
+        rebuild(LocalDate.now());
+        return true;
+    }
+
+    // 슬롯 알림 outbox 등록 + 워터마크 전진 (한 트랜잭션), 실패하면 false
+    private boolean dispatch(LocalDate date, Slot slot) {
+        List<PushMessage> messages = new ArrayList<>(slot.recipients.size());
+        slot.recipients.forEach((uno, recipient) -> {
+            PushMessage message = fcmService.buildAlarmSlotMessage(uno, recipient.token, date, slot.time, recipient.enos);
+            if (message != null) messages.add(message);
+        });
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                notificationOutboxService.append(messages, jitterMs);
+                alarmSlotDispatchRepository.advance(date, slot.time, LocalDateTime.now());
+            });
+            if (!messages.isEmpty()) {
+                log.info("[AlarmSlotScheduler] {} 알림 {}건 발송 등록", slot.time, messages.size());
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("[AlarmSlotScheduler] {} 알림 발송 등록 실패, 다음 tick에 다시 시도: {}", slot.time, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    // 커밋된 슬롯까지 워터마크 전진 + 발송 중 재구성으로 다시 들어온 슬롯 제거
+    private synchronized void markDispatched(LocalDate date, LocalTime time) {
+        if (!date.equals(day)) return;
+        dispatchedUpTo = later(dispatchedUpTo, time);
+        while (!queue.isEmpty() && !queue.peek().time.isAfter(dispatchedUpTo)) {
+            slots.remove(queue.poll().time);
+        }
+    }
+
+    // 등록하지 못한 슬롯을 큐에 되돌림 (그 사이 재구성으로 같은 시각 슬롯이 다시 생겼으면 새로 읽은 쪽 유지)
+    private synchronized void requeue(LocalDate date, List<Slot> pending) {
+        if (!date.equals(day) || leadership == null) return;
+        for (Slot slot : pending) {
+            if (dispatchedUpTo != null && !slot.time.isAfter(dispatchedUpTo)) continue;
+            if (slots.putIfAbsent(slot.time, slot) == null) {
+                queue.add(slot);
+            }
+        }
+    }
+
+    private static LocalTime later(LocalTime a, LocalTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    // synchronized 안에서만 호출
+    private void add(AlarmSlotTarget target) {
+        if (dispatchedUpTo != null && !target.getTime().isAfter(dispatchedUpTo)) {
+            return;
+        }
+        Slot slot = slots.computeIfAbsent(target.getTime(), time -> {
+            Slot created = new Slot(time);
+            queue.add(created);
+            return created;
+        });
+        slot.recipients
+                .computeIfAbsent(target.getUno(), uno -> new Recipient(target.getFcmToken()))
+                .enos.add(target.getEno());
+    }
+
+    private static class Slot {
+        final LocalTime time;
+        final Map<Long, Recipient> recipients = new HashMap<>();
+
+        Slot(LocalTime time) {
+            this.time = time;
+        }
+    }
+
+    private static class Recipient {
+        final String token;
+        final List<Long> enos = new ArrayList<>();
+
+        Recipient(String token) {
+            this.token = token;
+        }
+    }
+}
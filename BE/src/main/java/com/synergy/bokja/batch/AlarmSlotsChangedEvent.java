@@ -0,0 +1,13 @@
+package com.synergy.bokja.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 사용자의 알림 시각이 바뀜 (복약 시간 / 복약 조합 변경) → AlarmSlotScheduler가 커밋 후 해당 사용자 슬롯만 다시 구성
+ */
+@Getter
+@AllArgsConstructor
+public class AlarmSlotsChangedEvent {
+    private final Long uno;
+}
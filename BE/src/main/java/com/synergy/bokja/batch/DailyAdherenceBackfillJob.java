@@ -0,0 +1,85 @@
+package com.synergy.bokja.batch;
+
+import com.synergy.bokja.repository.DailyAdherenceRepository;
+import com.synergy.bokja.repository.UserMedicineRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 일별 복약 집계(daily_adherence_table) 백필
+ * - event_table 전체를 복약 정보(umno) batch-size개 단위로 나눠 다시 집계해 덮어씀 (몇 번 돌려도 결과 동일)
+ * - 기동 시 1번: 잠금(daily-adherence-backfill)을 얻은 인스턴스만 백그라운드에서 실행, 끝나면 완료로 표시해 이후 기동 때는 생략
+ * - 수동 실행: POST /admin/adherence/backfill (집계가 어긋났을 때 다시 맞추기)
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyAdherenceBackfillJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyAdherenceBackfillJob.class);
+
+    private static final String LOCK = "daily-adherence-backfill";
+
+    private final DailyAdherenceRepository dailyAdherenceRepository;
+    private final UserMedicineRepository userMedicineRepository;
+    private final LeaseLockService leaseLockService;
+
+    @Qualifier("eventBatchExecutor")
+    private final Executor eventBatchExecutor;
+
+    @Value("${report.adherence.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    // 한 번의 집계 INSERT ... SELECT가 다루는 복약 정보 수
+    @Value("${report.adherence.backfill-batch-size:1000}")
+    private long batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) return;
+        LeaseLockService.Lease lease = leaseLockService.tryAcquire(LOCK);
+        if (lease == null) return; // 다른 인스턴스가 진행 중이거나 이미 끝남
+
+        eventBatchExecutor.execute(() -> {
+            try {
+                backfill();
+                leaseLockService.complete(lease);
+            } catch (Exception e) {
+                log.error("[DailyAdherenceBackfillJob] 일별 복약 집계 백필 실패: {}", e.getMessage(), e);
+                leaseLockService.release(lease);
+            }
+        });
+    }
+
+    /**
+     * 전체 다시 집계 (이미 실행 중이면 IllegalStateException)
+     */
+    public int backfill() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("일별 복약 집계 백필이 이미 실행 중입니다.");
+        }
+        try {
+            Long maxUmno = userMedicineRepository.findMaxUmno();
+            if (maxUmno == null) return 0;
+
+            int rows = 0;
+            for (long after = 0; after < maxUmno; after += batchSize) {
+                rows += dailyAdherenceRepository.recompute(after, Math.min(after + batchSize, maxUmno));
+            }
+            log.info("[DailyAdherenceBackfillJob] 일별 복약 집계 백필 완료 (복약 정보 ~{}, 반영 {}행)", maxUmno, rows);
+            return rows;
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.synergy.bokja.batch;
+
+import com.synergy.bokja.dto.DailyEventChunkResult;
+import com.synergy.bokja.dto.EventBatchProgressDTO;
+import com.synergy.bokja.repository.BatchRunRepository;
+import com.synergy.bokja.repository.UserRepository;
+import com.synergy.bokja.service.EventService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 일간 이벤트 생성 배치
+ * - uno를 partition-size 구간으로 나누고, 파티션마다 DB 잠금(LeaseLockService)을 얻은 인스턴스만 처리
+ *   → 여러 인스턴스의 자정 스케줄러 / 수동 실행(/admin/run-batch)이 겹쳐도 같은 사용자를 두 번 처리하지 않고 나눠서 처리
+ *   → 처리 중 인스턴스가 죽으면 잠금 만료 후 다음 실행이 이어서 처리, 끝난 파티션은 완료로 표시
+ * - 파티션 안의 활성 사용자를 uno 기준 keyset 페이징으로 읽음 (전체를 한 번에 메모리에 올리지 않음)
+ * - chunk-size명씩 묶어 eventBatchExecutor에서 병렬 처리, 청크마다 트랜잭션 1개
+ * - event.batch.mode=sql 이면 청크를 사용자별 반복 대신 집합 SQL(INSERT ... SELECT)로 처리
+ * - 청크가 실패하면 해당 청크의 사용자를 1명씩 Java 경로로 다시 처리 (한 명 때문에 청크 전체가 빠지지 않도록)
+ * - 커밋된 사용자는 실행 기록(batch_run_table, 날짜 × 사용자)으로 남고, 같은 날짜로 다시 실행하면 건너뜀
+ *   이벤트도 (알림 시간, 날짜)당 1건만 생성 → 두 번 실행 / 재기동 후 재개 / 밀린 날짜 재실행이 중복을 만들지 않음
+ * - "오늘의 이벤트" 알림은 청크 트랜잭션에서 outbox에 저장되고, 전송은 NotificationOutboxService가 따로 처리
+ * - 진행 상황은 getProgress()로 조회 (GET /admin/batch/progress)
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyEventBatchJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyEventBatchJob.class);
+
+    private final EventService eventService;
+    private final UserRepository userRepository;
+    private final BatchRunRepository batchRunRepository;
+    private final LeaseLockService leaseLockService;
+
+    @Qualifier("eventBatchExecutor")
+    private final Executor eventBatchExecutor;
+
+    // java: 사용자별로 엔터티를 만들어 저장 / sql: 청크 전체를 INSERT ... SELECT로 (실패 시 java로 사용자별 재시도)
+    @Value("${event.batch.mode:java}")
+    private String mode;
+
+    @Value("${event.batch.chunk-size:100}")
+    private int chunkSize;
+
+    // 동시에 처리 중(대기 포함)인 청크 수 상한 → 읽어 둔 사용자 uno가 무한정 쌓이지 않도록
+    @Value("${event.batch.max-in-flight-chunks:8}")
+    private int maxInFlightChunks;
+
+    // 파티션(= 잠금 단위) 하나의 uno 구간 크기
+    @Value("${event.batch.partition-size:10000}")
+    private long partitionSize;
+
+    @Value("${event.batch.run-retention-days:7}")
+    private int runRetentionDays;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile Progress progress = new Progress(null);
+
+    /**
+     * runDate 날짜의 이벤트 생성 (이 인스턴스에서 이미 실행 중이면 IllegalStateException)
+     * uno를 partition-size 단위 구간으로 나누고, 잠금을 얻은 파티션만 처리
+     * (다른 인스턴스가 처리 중이거나 이미 끝난 파티션은 건너뜀 → 여러 인스턴스가 동시에 돌면 나눠서 처리)
+     */
+    public EventBatchProgressDTO run(LocalDate runDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("일간 이벤트 배치가 이미 실행 중입니다.");
+        }
+        Progress current = new Progress(runDate);
+        progress = current;
+        try {
+            batchRunRepository.deleteByRunDateBefore(runDate.minusDays(runRetentionDays));
+
+            Long maxUno = userRepository.findMaxActiveUno();
+            long partitions = maxUno == null ? 0 : (maxUno + partitionSize - 1) / partitionSize;
+            current.totalPartitions = partitions;
+
+            for (long p = 0; p < partitions; p++) {
+                LeaseLockService.Lease lease = leaseLockService.tryAcquire(partitionLockName(runDate, p));
+                if (lease == null) continue;
+                current.claimedPartitions.incrementAndGet();
+
+                long failedBefore = current.failedUsers.get();
+                boolean finished = false;
+                try {
+                    finished = runPartition(runDate, p * partitionSize, (p + 1) * partitionSize, lease, current);
+                } finally {
+                    // 실패한 사용자가 있거나 도중에 멈췄으면 반납 → 다음 실행(또는 다른 인스턴스)이 남은 사용자만 재시도
+                    if (finished && lease.isHeld() && current.failedUsers.get() == failedBefore) {
+                        leaseLockService.complete(lease);
+                    } else {
+                        leaseLockService.release(lease);
+                    }
+                }
+            }
+            current.status = current.failedUsers.get() > 0 ? "DONE_WITH_FAILURES" : "DONE";
+        } catch (Exception e) {
+            log.error("[DailyEventBatchJob] 일간 이벤트 배치 실패 ({}): {}", runDate, e.getMessage(), e);
+            current.status = "FAILED";
+            current.message = e.getMessage();
+        } finally {
+            current.finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+        log.info("[DailyEventBatchJob] {} 완료: 파티션 {}/{}, 처리 {}명, 실패 {}명, 건너뜀 {}명, 이벤트 {}건",
+                runDate, current.claimedPartitions.get(), current.totalPartitions,
+                current.processedUsers.get(), current.failedUsers.get(),
+                current.skippedUsers.get(), current.createdEvents.get());
+        return current.toDTO();
+    }
+
+    /**
+     * 파티션 (afterUno, lastUno] 처리. 끝까지 읽고 모든 청크가 끝났으면 true, 잠금을 잃어 멈췄으면 false
+     */
+    private boolean runPartition(LocalDate runDate, long afterUno, long lastUno,
+                                 LeaseLockService.Lease lease, Progress current) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(Math.max(1, maxInFlightChunks));
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(chunkSize);
+        try {
+            while (lease.isHeld()) {
+                List<Long> page = userRepository.findActiveUnosBetween(afterUno, lastUno, PageRequest.of(0, chunkSize));
+                if (page.isEmpty()) {
+                    if (!chunk.isEmpty()) {
+                        futures.add(submitChunk(runDate, chunk, inFlight, current));
+                    }
+                    return true;
+                }
+                afterUno = page.get(page.size() - 1);
+                current.lastUno = afterUno;
+
+                Set<Long> done = new HashSet<>(batchRunRepository.findDoneUnos(runDate, page));
+                for (Long uno : page) {
+                    if (done.contains(uno)) {
+                        current.skippedUsers.incrementAndGet();
+                        continue;
+                    }
+                    chunk.add(uno);
+                    if (chunk.size() >= chunkSize) {
+                        futures.add(submitChunk(runDate, chunk, inFlight, current));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            }
+            log.warn("[DailyEventBatchJob] 파티션 잠금을 잃어 중단합니다 ({})", lease.getName());
+            return false;
+        } finally {
+            // 읽기 도중 실패해도 이미 제출한 청크는 끝까지 기다림 (processChunk는 예외를 밖으로 던지지 않음)
+            CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+        }
+    }
+
+    private static String partitionLockName(LocalDate runDate, long partition) {
+        return "daily-event-batch:" + runDate + ":p" + partition;
+    }
+
+    public EventBatchProgressDTO getProgress() {
+        return progress.toDTO();
+    }
+
+    private CompletableFuture<Void> submitChunk(LocalDate runDate, List<Long> unos, Semaphore inFlight, Progress current)
+            throws InterruptedException {
+        inFlight.acquire();
+        current.submittedChunks.incrementAndGet();
+        try {
+            return CompletableFuture.runAsync(() -> processChunk(runDate, unos, current), eventBatchExecutor)
+                    .whenComplete((result, error) -> {
+                        inFlight.release();
+                        current.completedChunks.incrementAndGet();
+                    });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void processChunk(LocalDate runDate, List<Long> unos, Progress current) {
+        try {
+            DailyEventChunkResult result = "sql".equalsIgnoreCase(mode)
+                    ? eventService.createDailyEventsForChunkSql(runDate, unos)
+                    : eventService.createDailyEventsForChunk(runDate, unos);
+            onChunkCommitted(result, current);
+            current.processedUsers.addAndGet(unos.size());
+            return;
+        } catch (Exception e) {
+            log.warn("[DailyEventBatchJob] 청크 실패 (uno {}~{}), 사용자별로 재시도: {}",
+                    unos.get(0), unos.get(unos.size() - 1), e.getMessage());
+        }
+
+        for (Long uno : unos) {
+            try {
+                onChunkCommitted(eventService.createDailyEventsForChunk(runDate, List.of(uno)), current);
+                current.processedUsers.incrementAndGet();
+            } catch (Exception e) {
+                current.failedUsers.incrementAndGet();
+                log.error("[DailyEventBatchJob] 사용자 {} 이벤트 생성 실패: {}", uno, e.getMessage());
+            }
+        }
+    }
+
+    private void onChunkCommitted(DailyEventChunkResult result, Progress current) {
+        current.createdEvents.addAndGet(result.getEventCount());
+        current.queuedNotifications.addAndGet(result.getNotificationCount());
+    }
+
+    private static class Progress {
+        final LocalDate runDate;
+        final LocalDateTime startedAt;
+        final AtomicLong skippedUsers = new AtomicLong();
+        final AtomicLong processedUsers = new AtomicLong();
+        final AtomicLong failedUsers = new AtomicLong();
+        final AtomicLong submittedChunks = new AtomicLong();
+        final AtomicLong completedChunks = new AtomicLong();
+        final AtomicLong createdEvents = new AtomicLong();
+        final AtomicLong queuedNotifications = new AtomicLong();
+        final AtomicLong claimedPartitions = new AtomicLong();
+        volatile long totalPartitions;
+        volatile String status;
+        volatile Long lastUno;
+        volatile LocalDateTime finishedAt;
+        volatile String message;
+
+        Progress(LocalDate runDate) {
+            this.runDate = runDate;
+            this.startedAt = runDate == null ? null : LocalDateTime.now();
+            this.status = runDate == null ? "IDLE" : "RUNNING";
+        }
+
+        EventBatchProgressDTO toDTO() {
+            return EventBatchProgressDTO.builder()
+                    .runDate(runDate)
+                    .status(status)
+                    .skippedUsers(skippedUsers.get())
+                    .processedUsers(processedUsers.get())
+                    .failedUsers(failedUsers.get())
+                    .submittedChunks(submittedChunks.get())
+                    .completedChunks(completedChunks.get())
+                    .createdEvents(createdEvents.get())
+                    .queuedNotifications(queuedNotifications.get())
+                    .claimedPartitions(claimedPartitions.get())
+                    .totalPartitions(totalPartitions)
+                    .lastUno(lastUno)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .message(message)
+                    .build();
+        }
+    }
+}
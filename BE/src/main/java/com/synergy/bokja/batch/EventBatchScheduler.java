@@ -1,17 +1,25 @@
 package com.synergy.bokja.batch;
 
-import com.synergy.bokja.service.EventService;
+import com.synergy.bokja.dto.EventBatchProgressDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Component
 @RequiredArgsConstructor
 public class EventBatchScheduler {
 
-    private final EventService eventService;
+    private final DailyEventBatchJob dailyEventBatchJob;
+    private final AlarmSlotScheduler alarmSlotScheduler;
+
+    @Qualifier("dailyBatchExecutor")
+    private final Executor dailyBatchExecutor;
 
     /**
      * 매일 00시 00분 00초에 실행
@@ -19,11 +27,41 @@ public class EventBatchScheduler {
      */
     @Scheduled(cron = "0 0 0 * * ?")
     public void runDailyEventGeneration() {
-        System.out.println(LocalDateTime.now() + " :: 일간 이벤트 생성 배치 작업을 시작합니다...");
+        submitDailyEventGeneration(LocalDate.now());
+    }
+
+    /**
+     * runDate 날짜 배치를 전용 스레드(dailyBatchExecutor)에 넘기고 바로 반환
+     * (스케줄러/요청 스레드가 배치 내내 묶이지 않도록, 여러 번 요청하면 순서대로 하나씩 실행)
+     */
+    public void submitDailyEventGeneration(LocalDate runDate) {
+        try {
+            dailyBatchExecutor.execute(() -> {
+                try {
+                    runDailyEventGeneration(runDate);
+                } catch (Exception e) {
+                    System.out.println(LocalDateTime.now() + " :: 일간 이벤트 생성 배치 작업 실패 (" + runDate + "): " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("대기 중인 배치 작업이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    /**
+     * runDate 날짜로 실행 (수동 실행 / 밀린 날짜 재실행)
+     */
+    public void runDailyEventGeneration(LocalDate runDate) {
+        System.out.println(LocalDateTime.now() + " :: 일간 이벤트 생성 배치 작업을 시작합니다... (" + runDate + ")");
+
+        // 3. 실제 로직은 배치 잡에 위임 (같은 날짜로 다시 실행하면 이미 처리된 사용자는 건너뜀)
+        EventBatchProgressDTO result = dailyEventBatchJob.run(runDate);
 
-        // 3. 실제 로직은 서비스 클래스에 위임
-        eventService.createAndSendDailyEvents();
+        // 4. 이벤트가 만들어졌으니 알림 시각별 발송 큐 재구성 (오늘 날짜일 때만 의미 있음)
+        if (runDate.equals(LocalDate.now())) {
+            alarmSlotScheduler.rebuild(runDate);
+        }
 
-        System.out.println(LocalDateTime.now() + " :: 일간 이벤트 생성 배치 작업을 완료했습니다.");
+        System.out.println(LocalDateTime.now() + " :: 일간 이벤트 생성 배치 작업을 완료했습니다. (" + result.getStatus() + ")");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package com.synergy.bokja.batch;
+
+import com.synergy.bokja.repository.BatchLockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DB(batch_lock_table) 기반 임대 잠금 - 여러 인스턴스 중 한 곳만 작업하도록
+ * - tryAcquire(): 잠금 행이 없으면 만들고, 있으면 만료된 경우에만 가져옴 (조건부 UPDATE 1번이라 경쟁해도 한 곳만 성공)
+ * - 가지고 있는 잠금은 heartbeat-interval-ms마다 ttl-ms만큼 연장, 연장에 실패하면 잃은 것으로 표시 (Lease.isHeld() == false)
+ *   → 인스턴스가 죽으면 ttl-ms 후 다른 인스턴스가 이어받음
+ * - heartbeat는 전용 스케줄러(leaseHeartbeatScheduler)에서 실행 → 다른 예약 작업 때문에 연장이 밀리지 않음
+ * - 마지막으로 획득/연장한 시점부터 ttl-ms가 지나면 연장 결과와 상관없이 isHeld() == false
+ *   (DB 장애 등으로 연장하지 못한 사이 다른 인스턴스가 가져갔을 수 있으므로)
+ * - complete(): 끝난 작업으로 표시해 다시 가져가지 않게 / release(): 바로 만료시켜 다른 인스턴스가 가져가게
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaseLockService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseLockService.class);
+
+    private final BatchLockRepository batchLockRepository;
+
+    @Value("${batch.lock.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${batch.lock.retention-days:7}")
+    private int retentionDays;
+
+    // 이 인스턴스 식별자 (호스트명 + 기동마다 새 난수 → 같은 호스트에서 재기동해도 이전 잠금과 구분)
+    private final String owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final Map<String, Lease> held = new ConcurrentHashMap<>();
+
+    /** 잠금 획득 시도 (다른 인스턴스가 가지고 있거나 이미 완료된 잠금이면 null) */
+    public Lease tryAcquire(String name) {
+        Lease current = held.get(name);
+        if (current != null && current.isHeld()) {
+            return current;
+        }
+        long requestedAt = System.nanoTime(); // DB의 만료 시각은 이 시점 이후로 잡히므로 로컬 기준은 보수적
+        try {
+            boolean acquired = batchLockRepository.takeOver(name, owner, ttlMs) > 0
+                    || batchLockRepository.insertIfAbsent(name, owner, ttlMs) > 0;
+            if (!acquired) return null;
+        } catch (Exception e) {
+            log.warn("[LeaseLockService] 잠금 획득 실패 ({}): {}", name, e.getMessage());
+            return null;
+        }
+        Lease lease = new Lease(name, requestedAt + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        held.put(name, lease);
+        return lease;
+    }
+
+    /** 작업 완료 표시 (이후 누구도 다시 가져가지 않음) */
+    public void complete(Lease lease) {
+        held.remove(lease.name, lease);
+        lease.held = false;
+        if (batchLockRepository.complete(lease.name, owner) == 0) {
+            log.warn("[LeaseLockService] 완료 표시 전에 잠금을 잃었습니다 ({})", lease.name);
+        }
+    }
+
+    /** 잠금 반납 (다른 인스턴스가 바로 가져갈 수 있음) */
+    public void release(Lease lease) {
+        held.remove(lease.name, lease);
+        lease.held = false;
+        try {
+            batchLockRepository.release(lease.name, owner);
+        } catch (Exception e) {
+            log.warn("[LeaseLockService] 잠금 반납 실패 ({}): {}", lease.name, e.getMessage());
+        }
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    @Scheduled(fixedDelayString = "${batch.lock.heartbeat-interval-ms:10000}", scheduler = "leaseHeartbeatScheduler")
+    public void heartbeat() {
+        for (Lease lease : held.values()) {
+            long requestedAt = System.nanoTime();
+            try {
+                if (batchLockRepository.renew(lease.name, owner, ttlMs) == 0) {
+                    lease.held = false;
+                    held.remove(lease.name, lease);
+                    log.warn("[LeaseLockService] 잠금을 잃었습니다 ({})", lease.name);
+                } else {
+                    lease.validUntilNanos = requestedAt + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+                }
+            } catch (Exception e) {
+                // DB 일시 장애: 로컬 만료 시각 전까지는 계속 가진 것으로 보고 다음 heartbeat에서 재시도
+                log.warn("[LeaseLockService] 잠금 연장 실패 ({}): {}", lease.name, e.getMessage());
+            }
+        }
+    }
+
+    /** 오래된 잠금 행 정리 (매일 04:50) */
+    @Scheduled(cron = "${batch.lock.purge-cron:0 50 4 * * *}")
+    public void purgeExpired() {
+        int deleted = batchLockRepository.deleteExpiredBefore(retentionDays);
+        if (deleted > 0) {
+            log.info("[LeaseLockService] 오래된 잠금 {}건 삭제", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        held.values().forEach(this::release);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    public static class Lease {
+        private final String name;
+        private volatile boolean held = true;
+        private volatile long validUntilNanos; // System.nanoTime() 기준 로컬 만료 시각
+
+        private Lease(String name, long validUntilNanos) {
+            this.name = name;
+            this.validUntilNanos = validUntilNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** heartbeat 실패로 잃었거나 ttl 안에 연장하지 못했으면 false → 진행 중인 작업은 새 작업을 더 시작하지 말 것 */
+        public boolean isHeld() {
+            return held && System.nanoTime() - validUntilNanos < 0;
+        }
+    }
+}
@@ -1,20 +1,46 @@
 package com.synergy.bokja.controller;
 
+import com.synergy.bokja.batch.DailyAdherenceBackfillJob;
+import com.synergy.bokja.batch.DailyEventBatchJob;
 import com.synergy.bokja.batch.EventBatchScheduler;
+import com.synergy.bokja.dto.EventBatchProgressDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+
 @RestController
 @RequiredArgsConstructor
 public class AdminController {
 
     private final EventBatchScheduler eventBatchScheduler;
+    private final DailyEventBatchJob dailyEventBatchJob;
+    private final DailyAdherenceBackfillJob dailyAdherenceBackfillJob;
 
+    // date를 주면 해당 날짜로 실행 (서버 중단으로 밀린 날짜 재실행용, 이미 처리된 사용자는 건너뜀)
+    // 배치는 별도 스레드에서 실행되므로 바로 반환, 진행 상황은 /admin/batch/progress로 확인
     @PostMapping("/admin/run-batch")
-    public ResponseEntity<String> forceRunBatch() {
-        eventBatchScheduler.runDailyEventGeneration();
-        return ResponseEntity.ok("배치 작업 수동 실행 성공");
+    public ResponseEntity<String> forceRunBatch(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        eventBatchScheduler.submitDailyEventGeneration(date != null ? date : LocalDate.now());
+        return ResponseEntity.accepted().body("배치 작업 수동 실행 요청 완료");
+    }
+
+    // 일간 이벤트 배치 진행 상황 (실행 중이면 현재까지, 아니면 마지막 실행 결과)
+    @GetMapping("/admin/batch/progress")
+    public ResponseEntity<EventBatchProgressDTO> getBatchProgress() {
+        return ResponseEntity.ok(dailyEventBatchJob.getProgress());
+    }
+
+    // 일별 복약 집계(daily_adherence_table)를 event_table에서 전체 다시 계산
+    @PostMapping("/admin/adherence/backfill")
+    public ResponseEntity<String> backfillAdherence() {
+        int rows = dailyAdherenceBackfillJob.backfill();
+        return ResponseEntity.ok("일별 복약 집계 백필 완료 (" + rows + ")");
     }
 }
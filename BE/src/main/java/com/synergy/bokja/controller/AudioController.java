@@ -0,0 +1,42 @@
+package com.synergy.bokja.controller;
+
+import com.synergy.bokja.service.TtsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+public class AudioController {
+
+    private final TtsService ttsService;
+
+    /**
+     * TTS 오디오 조회 (SecurityConfig에서 permitAll)
+     * GET /audio/{hash}
+     * - hash: 텍스트 + 음성 파라미터의 SHA-256 → 내용이 바뀌지 않으므로 ETag로 그대로 사용, 장기 캐시 허용
+     * - Range 요청은 Resource 응답이므로 Spring이 206 Partial Content로 처리
+     */
+    @GetMapping("/audio/{hash}")
+    public ResponseEntity<Resource> getAudio(@PathVariable("hash") String hash) throws IOException {
+
+        Resource audio = ttsService.getCachedAudio(hash);
+        if (audio == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(ttsService.getAudioMediaType())
+                .contentLength(audio.contentLength())
+                .eTag("\"" + hash + "\"")
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(30)).cachePublic())
+                .body(audio);
+    }
+}
@@ -4,6 +4,7 @@ import com.synergy.bokja.auth.JwtTokenProvider;
 import com.synergy.bokja.dto.*;
 import com.synergy.bokja.response.BaseResponse;
 import com.synergy.bokja.service.MedicationService;
+import com.synergy.bokja.service.MedicationUploadJobService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +18,7 @@ import org.springframework.web.multipart.MultipartFile;
 public class MedicationController {
 
     private final MedicationService medicationService;
+    private final MedicationUploadJobService medicationUploadJobService;
     private final JwtTokenProvider jwtTokenProvider;
 
     /**
@@ -24,10 +26,13 @@ public class MedicationController {
      * POST /medications
      * - mode: "1" (처방전), "2" (약봉투)
      * - image: MultipartFile
+     * - 처리는 비동기: 작업 ID를 바로 반환하고 GET /medications/jobs/{jobId}로 진행 상황 조회
+     * - Idempotency-Key 헤더(선택): 같은 키로 재요청하면 기존 작업을 반환
      */
     @PostMapping("/medications")
     public ResponseEntity<?> uploadMedication(
             @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestParam String mode,
             @RequestParam("image") MultipartFile imageFile
     ) {
@@ -39,11 +44,36 @@ public class MedicationController {
 
         Long uno = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        MedicationCreateResponseDTO result = medicationService.uploadImg(uno, mode, imageFile);
-        BaseResponse<MedicationCreateResponseDTO> response =
-                new BaseResponse<>(1000, "처방전 등록 성공", result);
+        MedicationUploadJobResponseDTO result = medicationUploadJobService.submit(uno, mode, imageFile, idempotencyKey);
+        BaseResponse<MedicationUploadJobResponseDTO> response =
+                new BaseResponse<>(1000, "처방전 등록 요청 성공", result);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * 복약 등록 작업 상태 조회
+     * GET /medications/jobs/{jobId}
+     * - status: PENDING / RUNNING / DONE(umno 포함) / FAILED(message 포함)
+     */
+    @GetMapping("/medications/jobs/{jobId}")
+    public ResponseEntity<?> getUploadJob(
+            @RequestHeader("Authorization") String token,
+            @PathVariable("jobId") String jobId
+    ) {
+
+        String jwtToken = token.replace("Bearer ", "");
+        if (!jwtTokenProvider.validateToken(jwtToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid or expired token");
+        }
+
+        Long uno = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        MedicationUploadJobResponseDTO result = medicationUploadJobService.getStatus(uno, jobId);
+        BaseResponse<MedicationUploadJobResponseDTO> response =
+                new BaseResponse<>(1000, "처방전 등록 작업 조회 성공", result);
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
     /**
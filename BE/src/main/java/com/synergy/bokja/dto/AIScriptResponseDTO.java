@@ -22,5 +22,5 @@ public class AIScriptResponseDTO {
     String description;
     
     @JsonProperty("audio_url")
-    String audioUrl; // TTS 오디오 Base64 인코딩 문자열
+    String audioUrl; // TTS 오디오 URL (/audio/{hash})
 }
@@ -0,0 +1,14 @@
+package com.synergy.bokja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 일간 이벤트 배치 청크 1개의 처리 결과
+ */
+@Getter
+@AllArgsConstructor
+public class DailyEventChunkResult {
+    private int eventCount;                 // 생성한 이벤트 수
+    private int notificationCount; // outbox에 저장한 "오늘의 이벤트" 알림 수 (토큰 있는 사용자만)
+}
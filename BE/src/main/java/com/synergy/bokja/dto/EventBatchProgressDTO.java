@@ -0,0 +1,31 @@
+package com.synergy.bokja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventBatchProgressDTO {
+    private LocalDate runDate;
+    private String status;          // IDLE / RUNNING / DONE / DONE_WITH_FAILURES / FAILED
+    private long skippedUsers;      // 실행 기록(batch_run_table)에 이미 있어 건너뛴 사용자 수
+    private long processedUsers;    // 이번 실행에서 커밋된 사용자 수
+    private long failedUsers;
+    private long submittedChunks;
+    private long completedChunks;
+    private long createdEvents;
+    private long queuedNotifications; // outbox에 저장한 알림 수
+    private long claimedPartitions;   // 이 인스턴스가 잠금을 얻어 처리한 파티션 수
+    private long totalPartitions;
+    private Long lastUno;           // 지금까지 읽어 들인 마지막 사용자 uno
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;         // FAILED일 때 실패 사유
+}
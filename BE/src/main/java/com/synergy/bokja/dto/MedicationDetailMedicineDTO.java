@@ -15,6 +15,6 @@ public class MedicationDetailMedicineDTO {
     private String image;
     private String information;
     private String description;
-    private String audioUrl; // TTS 오디오 Base64 인코딩 문자열
+    private String audioUrl; // TTS 오디오 URL (/audio/{hash})
     private List<MaterialDTO> materials;
 }
@@ -12,6 +12,6 @@ public class MedicationItemDTO {
     private String classification;
     private String image;
     private String description;          // user_medicine_item_table.description
-    private String audioUrl;              // TTS 오디오 Base64 인코딩 문자열
+    private String audioUrl;              // TTS 오디오 URL (/audio/{hash})
     private List<MaterialDTO> materials; // 병용주의 원료 목록
 }
\ No newline at end of file
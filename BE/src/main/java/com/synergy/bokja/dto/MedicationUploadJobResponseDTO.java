@@ -0,0 +1,18 @@
+package com.synergy.bokja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MedicationUploadJobResponseDTO {
+    private String jobId;
+    private String status;  // PENDING / RUNNING / DONE / FAILED
+    private String stage;   // OCR / MATCH / GENERATE / PERSIST (진행 중인 단계)
+    private Long umno;      // DONE일 때 생성된 복약 정보 ID
+    private String message; // FAILED일 때 실패 사유
+}
@@ -0,0 +1,18 @@
+package com.synergy.bokja.dto.fcm;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalTime;
+
+/**
+ * 오늘 알림 이벤트 1건 = 어느 사용자에게(토큰) 몇 시에 보낼지 (AlarmSlotScheduler 큐 구성용 조회 결과)
+ */
+@Getter
+@AllArgsConstructor
+public class AlarmSlotTarget {
+    private Long uno;
+    private String fcmToken;
+    private Long eno;
+    private LocalTime time; // alarm_time → time_table의 시각
+}
@@ -0,0 +1,22 @@
+package com.synergy.bokja.dto.fcm;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 사용자 1명에게 보낼 푸시 메시지 (FCM Message로 변환하기 전)
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class PushMessage {
+    private Long uno;                 // 수신자 (토큰이 해지되었을 때 user_table의 fcm_token을 비우기 위해)
+    private String token;             // FCM 등록 토큰
+    private String title;
+    private String body;
+    private Map<String, String> data; // FCM data 페이로드 (값은 문자열만 가능)
+    private String dedupeKey;         // outbox 중복 등록 방지 키 (없으면 null)
+}
@@ -0,0 +1,26 @@
+package com.synergy.bokja.dto.fcm;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 메시지 1건의 전송 결과
+ */
+@Getter
+@AllArgsConstructor
+public class PushSendResult {
+
+    public enum Status {
+        SUCCESS,
+        UNREGISTERED, // 토큰이 더 이상 유효하지 않음 (앱 삭제 등) → 토큰 삭제
+        TRANSIENT,    // 일시적 오류 (UNAVAILABLE / INTERNAL / QUOTA_EXCEEDED) → 재시도
+        FAILED        // 재시도해도 실패할 오류
+    }
+
+    private Status status;
+    private String error;
+
+    public static PushSendResult success() {
+        return new PushSendResult(Status.SUCCESS, null);
+    }
+}
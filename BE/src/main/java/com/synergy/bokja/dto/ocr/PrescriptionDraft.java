@@ -0,0 +1,23 @@
+package com.synergy.bokja.dto.ocr;
+
+import com.synergy.bokja.entity.CombinationEntity;
+import com.synergy.bokja.entity.MedicineEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 업로드 파이프라인에서 LLM 단계까지 끝난 결과 (아직 DB에 저장 전)
+ */
+@Getter
+@AllArgsConstructor
+public class PrescriptionDraft {
+    private ParsedPrescriptionData parsedData;       // OCR 파싱 결과
+    private List<MedicineEntity> matchedMeds;        // 매칭된 약품
+    private List<CombinationEntity> combinations;    // 병용섭취 주의사항
+    private String category;                         // 대표 카테고리
+    private List<String> descriptions;               // 약품별 최종 안내 문구 (matchedMeds와 같은 순서)
+    private List<String> materialWrongAnswers;       // 병용주의 퀴즈 오답 후보
+    private List<String> classificationWrongAnswers; // 약효분류 퀴즈 오답 후보
+}
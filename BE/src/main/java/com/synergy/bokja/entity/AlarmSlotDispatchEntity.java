@@ -0,0 +1,38 @@
+package com.synergy.bokja.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * 날짜별 알림 슬롯 발송 워터마크 (날짜 1개 = 1행)
+ * - 슬롯 알림을 outbox에 등록하는 트랜잭션에서 함께 갱신 → 커밋된 슬롯까지만 앞으로 감
+ * - 리더가 바뀌면 새 리더는 이 시각 이후 슬롯부터 이어서 발송 (리더 교체 사이에 온 슬롯도 빠뜨리지 않음)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "alarm_slot_dispatch_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_alarm_slot_dispatch_date", columnNames = "dispatch_date"))
+public class AlarmSlotDispatchEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long asdno;
+
+    @Column(name = "dispatch_date", nullable = false)
+    private LocalDate dispatchDate;
+
+    // 이 시각까지의 슬롯은 outbox 등록이 커밋됨
+    @Column(name = "dispatched_up_to", nullable = false)
+    private LocalTime dispatchedUpTo;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package com.synergy.bokja.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 여러 서버 인스턴스 간 작업 임대(lease) 잠금
+ * - lock_name 1개 = 잠금 1개 (예: "daily-event-batch:2025-11-01:p3", "alarm-slot-dispatcher")
+ * - 소유 인스턴스(owner)가 주기적으로 expires_at을 연장(heartbeat), 연장이 끊기면 만료 후 다른 인스턴스가 가져감
+ * - completed_at이 채워진 잠금은 다시 가져갈 수 없음 (끝난 배치 파티션 표시)
+ * - 시각은 모두 DB 시계(NOW) 기준 → 인스턴스 간 시계 차이 영향 없음
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "batch_lock_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_batch_lock_name", columnNames = "lock_name"))
+public class BatchLockEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long blno;
+
+    @Column(name = "lock_name", nullable = false, length = 100)
+    private String lockName;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
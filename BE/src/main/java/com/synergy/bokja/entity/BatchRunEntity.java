@@ -0,0 +1,37 @@
+package com.synergy.bokja.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 일간 이벤트 배치 실행 기록 (사용자 1명 × 날짜 1행)
+ * - 사용자의 그날 이벤트가 커밋될 때 같은 트랜잭션에서 함께 저장 (이벤트가 0건이어도 저장)
+ * - 같은 날짜로 배치를 다시 돌리면(재시도 / 중단 후 재개 / 수동 실행) 여기 있는 사용자는 건너뜀
+ * - (run_date, uno) 유니크 → 두 실행이 같은 사용자를 동시에 처리해도 한쪽만 커밋됨
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "batch_run_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_batch_run", columnNames = {"run_date", "uno"}))
+public class BatchRunEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long brno;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(nullable = false)
+    private Long uno;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,44 @@
+package com.synergy.bokja.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 복약 정보(umno)별 하루 복약 집계 (리포트 요약 / 총평용)
+ * - 날짜: 이벤트 날짜(event_date, 없으면 생성 날짜)
+ * - issued_count: 그날 발행된 이벤트 수 (일간 배치가 이벤트를 만들 때 증가)
+ * - completed_count: 그중 같은 날 완료 처리된 수 (updateEventStatus에서 처음 완료될 때만 증가)
+ * - 과거 데이터는 DailyAdherenceBackfillJob이 event_table에서 다시 계산해 채움
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "daily_adherence_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_adherence", columnNames = {"umno", "adherence_date"}))
+public class DailyAdherenceEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long dano;
+
+    @Column(nullable = false)
+    private Long umno;
+
+    @Column(name = "adherence_date", nullable = false)
+    private LocalDate adherenceDate;
+
+    @Column(name = "issued_count", nullable = false)
+    private Integer issuedCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private Integer completedCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -3,6 +3,7 @@ package com.synergy.bokja.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Getter
@@ -11,7 +12,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "event_table")
+@Table(name = "event_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_event_alarm_date", columnNames = {"atno", "event_date"}))
 public class EventEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,6 +43,10 @@ public class EventEntity {
     @Column(nullable = false)
     private EventStatus status;
 
+    // 일간 배치가 발행한 알림 이벤트의 날짜 (알림 시간 1개당 하루 1건, 그 외 이벤트는 NULL)
+    @Column(name = "event_date")
+    private LocalDate eventDate;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
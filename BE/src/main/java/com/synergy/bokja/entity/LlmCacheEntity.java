@@ -0,0 +1,38 @@
+package com.synergy.bokja.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "llm_cache_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_llm_cache_key", columnNames = "cache_key"),
+        indexes = @Index(name = "idx_llm_cache_expires_at", columnList = "expires_at"))
+public class LlmCacheEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long lcno;
+
+    // SHA-256(mode, 정규화된 입력, 프롬프트 버전, 참조 데이터 시그니처) hex
+    @Column(name = "cache_key", nullable = false, length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 20)
+    private String mode;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
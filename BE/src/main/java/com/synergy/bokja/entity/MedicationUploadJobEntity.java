@@ -0,0 +1,67 @@
+package com.synergy.bokja.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 처방전/약봉투 업로드 작업 상태
+ * - 작업을 실행하는 인스턴스가 단계가 바뀔 때마다 갱신 → 로드밸런서 뒤 다른 인스턴스에서도 상태 조회 가능
+ * - 실행 인스턴스의 메모리(MedicationUploadJobService)는 캐시일 뿐, 기준은 이 테이블
+ * - (uno, mode, 이미지 SHA-256 / dHash)로 같은 이미지 재업로드를 인스턴스와 관계없이 감지 (UploadDedupIndex)
+ * - finished_at이 비어 있는데 updated_at이 오래 멈춰 있으면 실행 인스턴스가 죽은 것으로 보고 FAILED로 응답
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "medication_upload_job_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_medication_upload_job_id", columnNames = "job_id"),
+        indexes = {
+                @Index(name = "idx_medication_upload_job_image", columnList = "uno, image_sha256"),
+                @Index(name = "idx_medication_upload_job_finished_at", columnList = "finished_at")
+        })
+public class MedicationUploadJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long mujno;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    @Column(nullable = false)
+    private Long uno;
+
+    @Column(nullable = false, length = 10)
+    private String mode; // 1: 처방전 / 2: 약봉투
+
+    @Column(name = "image_sha256", nullable = false, length = 64)
+    private String imageSha256;
+
+    @Column(name = "image_dhash")
+    private Long imageDhash; // perceptual hash (perceptual-enabled일 때만)
+
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING / RUNNING / DONE / FAILED
+
+    @Column(length = 20)
+    private String stage; // OCR / MATCH / GENERATE / PERSIST
+
+    private Long umno; // DONE일 때 생성된 복약 정보 ID
+
+    @Column(length = 500)
+    private String message; // FAILED일 때 실패 사유
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,70 @@
+package com.synergy.bokja.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 푸시 알림 outbox
+ * - 이벤트(event_table)와 같은 트랜잭션에서 PENDING으로 저장 → 이벤트가 커밋되면 알림도 반드시 남음
+ * - NotificationOutboxService가 FOR UPDATE SKIP LOCKED로 가져가 IN_FLIGHT(임대)로 바꾼 뒤, 트랜잭션 밖에서 전송하고
+ *   결과에 따라 DELIVERED / 재시도(PENDING) / FAILED 처리
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "notification_outbox_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notification_outbox_dedupe_key", columnNames = "dedupe_key"),
+        indexes = @Index(name = "idx_notification_outbox_status_available", columnList = "status, available_at"))
+public class NotificationOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long nono;
+
+    @Column(nullable = false)
+    private Long uno;
+
+    @Column(nullable = false)
+    private String token;
+
+    @Column(nullable = false, length = 20)
+    private String type; // data 페이로드의 type (예: NEW_EVENTS)
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Column(nullable = false, length = 200)
+    private String body;
+
+    // FCM data 페이로드 (Map<String, String> JSON)
+    @Column(name = "data_json", columnDefinition = "TEXT", nullable = false)
+    private String dataJson;
+
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING / IN_FLIGHT / DELIVERED / FAILED
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    // 이 시각 이후에 전송 (재시도 백오프), IN_FLIGHT이면 임대 만료 시각
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    // 같은 알림이 두 번 등록되지 않도록 (예: ALARM_SLOT:uno:날짜:시각), 없으면 NULL (중복 허용)
+    @Column(name = "dedupe_key", length = 100)
+    private String dedupeKey;
+}
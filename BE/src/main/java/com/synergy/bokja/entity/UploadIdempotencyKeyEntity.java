@@ -0,0 +1,39 @@
+package com.synergy.bokja.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 업로드 Idempotency-Key → 작업 ID
+ * - (uno, idempotency_key) 유니크 → 같은 키의 재시도가 다른 인스턴스로 가도 작업은 하나만 생김
+ * - window(medication.upload.dedup.window-ms)가 지난 키는 새 작업이 다시 가져갈 수 있고, 주기적으로 정리됨
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "upload_idempotency_key_table",
+        uniqueConstraints = @UniqueConstraint(name = "uk_upload_idempotency_key", columnNames = {"uno", "idempotency_key"}),
+        indexes = @Index(name = "idx_upload_idempotency_key_created_at", columnList = "created_at"))
+public class UploadIdempotencyKeyEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long uikno;
+
+    @Column(nullable = false)
+    private Long uno;
+
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    private String idempotencyKey;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,281 @@
+package com.synergy.bokja.python;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 모든 Python 스크립트 호출의 단일 진입점 (MedicationService / ReportService / TtsService 공용)
+ * - 스크립트별 동시 실행 수 제한 (Semaphore bulkhead)
+ * - 대기열 길이 제한: 대기 중인 호출이 max-queue를 넘으면 즉시 거절 (RejectedExecutionException)
+ * - 벽시계 기준 타임아웃: 초과 시 프로세스 트리를 강제 종료 (PythonTimeoutException)
+ * - 취소: submit()으로 받은 Future를 cancel 하면 실행 중인 프로세스를 종료
+ * - 워커 모드(python.worker.enabled=true)는 PythonWorkerManager의 상주 워커를,
+ *   아니면 호출마다 프로세스를 띄우고 stdout/stderr를 동시에 읽음(one-shot)
+ */
+@Component
+@RequiredArgsConstructor
+public class PythonBridge {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonBridge.class);
+
+    private final PythonWorkerManager workerManager;
+
+    @Value("${python.bridge.ocr.timeout-ms:60000}")
+    private long ocrTimeoutMs;
+
+    @Value("${python.bridge.llm.timeout-ms:90000}")
+    private long llmTimeoutMs;
+
+    @Value("${python.bridge.tts.timeout-ms:20000}")
+    private long ttsTimeoutMs;
+
+    // 0이면 워커 풀 크기와 동일하게 설정
+    @Value("${python.bridge.ocr.max-concurrent:0}")
+    private int ocrMaxConcurrent;
+
+    @Value("${python.bridge.llm.max-concurrent:0}")
+    private int llmMaxConcurrent;
+
+    @Value("${python.bridge.tts.max-concurrent:0}")
+    private int ttsMaxConcurrent;
+
+    @Value("${python.bridge.ocr.max-queue:20}")
+    private int ocrMaxQueue;
+
+    @Value("${python.bridge.llm.max-queue:50}")
+    private int llmMaxQueue;
+
+    @Value("${python.bridge.tts.max-queue:50}")
+    private int ttsMaxQueue;
+
+    private final Map<PythonScript, Bulkhead> bulkheads = new EnumMap<>(PythonScript.class);
+
+    private ScheduledExecutorService watchdog;
+    private ExecutorService drainExecutor;
+
+    @PostConstruct
+    public void init() {
+        bulkheads.put(PythonScript.OCR, new Bulkhead(maxConcurrentOf(PythonScript.OCR, ocrMaxConcurrent), ocrMaxQueue, ocrTimeoutMs));
+        bulkheads.put(PythonScript.LLM, new Bulkhead(maxConcurrentOf(PythonScript.LLM, llmMaxConcurrent), llmMaxQueue, llmTimeoutMs));
+        bulkheads.put(PythonScript.TTS, new Bulkhead(maxConcurrentOf(PythonScript.TTS, ttsMaxConcurrent), ttsMaxQueue, ttsTimeoutMs));
+
+        watchdog = Executors.newSingleThreadScheduledExecutor(daemonThreads("python-bridge-watchdog"));
+        drainExecutor = Executors.newCachedThreadPool(daemonThreads("python-bridge-drain"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        drainExecutor.shutdownNow();
+    }
+
+    /**
+     * 스크립트를 실행하고, 스크립트가 stdout에 출력한 JSON 문자열을 반환 (호출 스레드에서 대기)
+     */
+    public String run(PythonScript script, String... args) throws IOException, InterruptedException {
+        return call(script, normalize(args), null, hook -> { });
+    }
+
+    /**
+     * 바이너리 입력(OCR 이미지 등)을 파일 없이 메모리에서 바로 스크립트에 전달
+     * - 워커 모드: 요청 프레임 뒤에 bytes 프레임으로
+     * - one-shot 모드: 프로세스 stdin으로 (PYTHON_INPUT_STDIN=1)
+     */
+    public String run(PythonScript script, byte[] input, String... args) throws IOException, InterruptedException {
+        return call(script, normalize(args), input, hook -> { });
+    }
+
+    /**
+     * executor에서 비동기로 실행. 반환된 Future를 cancel(true) 하면 대기 중이면 실행하지 않고,
+     * 실행 중이면 해당 Python 프로세스(워커)를 강제 종료함
+     */
+    public CompletableFuture<String> submit(Executor executor, PythonScript script, String... args) {
+        List<String> arguments = normalize(args);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        AtomicReference<Runnable> cancelHook = new AtomicReference<>();
+
+        Consumer<Runnable> registerCancel = hook -> {
+            cancelHook.set(hook);
+            if (future.isCancelled()) {
+                hook.run();
+            }
+        };
+
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) return;
+                try {
+                    future.complete(call(script, arguments, null, registerCancel));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                Runnable hook = cancelHook.get();
+                if (hook != null) hook.run();
+            }
+        });
+        return future;
+    }
+
+    private String call(PythonScript script, List<String> args, byte[] input, Consumer<Runnable> registerCancel)
+            throws IOException, InterruptedException {
+        Bulkhead bulkhead = bulkheads.get(script);
+
+        if (!bulkhead.permits.tryAcquire()) {
+            // 대기열이 가득 차면 기다리지 않고 바로 거절
+            if (bulkhead.waiting.incrementAndGet() > bulkhead.maxQueue) {
+                bulkhead.waiting.decrementAndGet();
+                throw new RejectedExecutionException(
+                        "Python script(" + script.getKey() + ") 대기열이 가득 찼습니다. (max-queue=" + bulkhead.maxQueue + ")");
+            }
+            try {
+                if (!bulkhead.permits.tryAcquire(bulkhead.timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new PythonTimeoutException(script, bulkhead.timeoutMs);
+                }
+            } finally {
+                bulkhead.waiting.decrementAndGet();
+            }
+        }
+
+        try {
+            if (workerManager.isEnabled()) {
+                return workerManager.execute(script, args, input, bulkhead.timeoutMs, watchdog,
+                        worker -> registerCancel.accept(worker::killTree));
+            }
+            return runOnce(script, args, input, bulkhead.timeoutMs, registerCancel);
+        } finally {
+            bulkhead.permits.release();
+        }
+    }
+
+    /**
+     * one-shot 모드: 호출마다 프로세스를 띄움
+     * stdout/stderr를 별도 스레드에서 동시에 읽어서, stderr가 많아도 파이프 버퍼가 차서 멈추지 않음
+     * 바이너리 입력은 stdin으로 흘려보냄 (쓰기도 별도 스레드: 스크립트가 다 읽기 전에 출력하면 교착될 수 있으므로)
+     */
+    private String runOnce(PythonScript script, List<String> args, byte[] input, long timeoutMs,
+                           Consumer<Runnable> registerCancel)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(workerManager.baseCommand(script));
+        command.addAll(args);
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.environment().put("PYTHONIOENCODING", "UTF-8");
+        if (input != null) {
+            pb.environment().put("PYTHON_INPUT_STDIN", "1");
+        }
+        Process process = pb.start();
+        registerCancel.accept(() -> destroyTree(process));
+
+        if (input != null) {
+            drainExecutor.execute(() -> {
+                try (OutputStream in = process.getOutputStream()) {
+                    in.write(input);
+                } catch (IOException e) {
+                    // 프로세스가 먼저 종료된 경우 → 종료 코드/stderr로 처리
+                }
+            });
+        }
+
+        CompletableFuture<String> stdout = CompletableFuture.supplyAsync(() -> readAll(process.getInputStream(), ""), drainExecutor);
+        CompletableFuture<String> stderr = CompletableFuture.supplyAsync(() -> readAll(process.getErrorStream(), "\n"), drainExecutor);
+
+        if (!process.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+            destroyTree(process);
+            throw new PythonTimeoutException(script, timeoutMs);
+        }
+
+        String output;
+        String errorOutput;
+        try {
+            output = stdout.get();
+            errorOutput = stderr.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Python script(" + script.getKey() + ") 출력 읽기 실패", e.getCause());
+        }
+
+        int exitCode = process.exitValue();
+        if (exitCode != 0) {
+            log.error("[PythonBridge] {} stderr = {}", script.getKey(), errorOutput);
+            throw new RuntimeException("Python script exited with code " + exitCode + ". Error: " + errorOutput);
+        }
+        if (!errorOutput.isBlank()) {
+            log.warn("[PythonBridge] {} stderr = {}", script.getKey(), errorOutput);
+        }
+        return output;
+    }
+
+    private static String readAll(InputStream in, String delimiter) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining(delimiter));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    // ProcessBuilder는 null 인자를 허용하지 않으므로 빈 문자열로 통일 (워커 모드도 동일하게)
+    private static List<String> normalize(String... args) {
+        return Arrays.stream(args)
+                .map(arg -> arg == null ? "" : arg)
+                .collect(Collectors.toList());
+    }
+
+    private int maxConcurrentOf(PythonScript script, int configured) {
+        return configured > 0 ? configured : workerManager.poolSizeOf(script);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Bulkhead {
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final int maxQueue;
+        private final long timeoutMs;
+
+        private Bulkhead(int maxConcurrent, int maxQueue, long timeoutMs) {
+            this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+            this.maxQueue = maxQueue;
+            this.timeoutMs = timeoutMs;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.synergy.bokja.python;
+
+/**
+ * Java에서 호출하는 Python 스크립트 종류
+ * (application.properties의 python.script.* / python.worker.* 키와 1:1 매칭)
+ */
+public enum PythonScript {
+    OCR("ocr"),
+    LLM("llm"),
+    TTS("tts");
+
+    private final String key;
+
+    PythonScript(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,15 @@
+package com.synergy.bokja.python;
+
+import java.io.IOException;
+
+/**
+ * Python 호출이 제한 시간(python.bridge.*.timeout-ms)을 넘겨 프로세스를 강제 종료한 경우
+ */
+public class PythonTimeoutException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PythonTimeoutException(PythonScript script, long timeoutMs) {
+        super("Python script(" + script.getKey() + ") timed out after " + timeoutMs + "ms");
+    }
+}
@@ -0,0 +1,181 @@
+package com.synergy.bokja.python;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상주 Python 인터프리터 1개 (script.py --worker)
+ * - stdin/stdout: 길이 프레임(4바이트 big-endian 길이 + UTF-8 JSON) 요청/응답
+ *   바이너리 입력(OCR 이미지 등)이 있으면 요청 JSON 바로 뒤에 같은 형식의 원본 bytes 프레임을 하나 더 보냄
+ * - stderr: 별도 데몬 스레드가 계속 읽어서 로그로 남김 (파이프 버퍼가 차서 멈추는 것 방지)
+ * - 한 번에 하나의 요청만 처리 (동시성은 PythonWorkerPool이 워커 수로 조절)
+ */
+class PythonWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonWorker.class);
+    private static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+
+    private final String name;
+    private final Process process;
+    private final DataOutputStream stdin;
+    private final DataInputStream stdout;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile boolean killed = false;
+
+    PythonWorker(String name, List<String> command, ObjectMapper objectMapper) throws IOException {
+        this.name = name;
+        this.objectMapper = objectMapper;
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+        Map<String, String> env = pb.environment();
+        env.put("PYTHONIOENCODING", "UTF-8");
+        env.put("PYTHONUNBUFFERED", "1");
+
+        this.process = pb.start();
+        this.stdin = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.stdout = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+
+        Thread stderrDrainer = new Thread(this::drainStderr, name + "-stderr");
+        stderrDrainer.setDaemon(true);
+        stderrDrainer.start();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * CLI 인자와 동일한 args로 요청을 보내고, CLI 모드에서 stdout에 찍히던 JSON 문자열을 그대로 반환
+     * - IOException: 워커 프로세스 자체가 죽었거나 프레임이 깨진 경우 (풀에서 재시작 대상)
+     * - RuntimeException: 스크립트가 에러 응답을 준 경우 (워커는 정상)
+     * - input: 스크립트에 그대로 넘길 바이너리 (없으면 null)
+     */
+    synchronized String call(List<String> args, byte[] input) throws IOException {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("id", sequence.incrementAndGet());
+        request.put("args", args);
+        if (input != null) {
+            request.put("input", true);
+        }
+
+        JsonNode response = exchange(request, input);
+        if (!response.path("ok").asBoolean(false)) {
+            throw new RuntimeException("Python worker " + name + " failed. Error: " + response.path("error").asText(""));
+        }
+        return response.path("output").asText();
+    }
+
+    /**
+     * 헬스 체크 (ping → pong)
+     * - timeoutMs 안에 응답이 없으면 일반 요청과 같이 watchdog이 프로세스 트리를 강제 종료 → false
+     *   (멈춘 워커가 헬스 체크 스레드를 붙잡지 않도록)
+     */
+    synchronized boolean ping(ScheduledExecutorService watchdog, long timeoutMs) {
+        if (!isAlive()) {
+            return false;
+        }
+        ScheduledFuture<?> killer = watchdog.schedule(this::killTree, timeoutMs, TimeUnit.MILLISECONDS);
+        try {
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("id", sequence.incrementAndGet());
+            request.put("ping", true);
+            return "pong".equals(exchange(request, null).path("output").asText()) && !killed;
+        } catch (IOException e) {
+            log.warn("[PythonWorker] {} ping 실패: {}", name, killed ? timeoutMs + "ms 안에 응답 없음" : e.getMessage());
+            return false;
+        } finally {
+            killer.cancel(false);
+        }
+    }
+
+    boolean isKilled() {
+        return killed;
+    }
+
+    /**
+     * 타임아웃/취소 시 호출: 자식 프로세스까지 포함해 즉시 강제 종료
+     * (call()에서 블로킹 중인 readInt()는 EOF로 풀려나 IOException이 됨)
+     */
+    void killTree() {
+        killed = true;
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /** stdin을 닫아 정상 종료를 유도하고, 남아 있으면 강제 종료 */
+    void destroy() {
+        try {
+            stdin.close();
+        } catch (IOException ignored) {
+        }
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        if (process.isAlive()) {
+            process.destroyForcibly();
+        }
+    }
+
+    private JsonNode exchange(Map<String, Object> request, byte[] input) throws IOException {
+        if (!isAlive()) {
+            throw new IOException("Python worker " + name + " is not running (exit=" + process.exitValue() + ")");
+        }
+
+        // 크기 확인은 아무것도 쓰기 전에 (요청 프레임만 보내고 멈추면 이후 요청/응답 순서가 어긋남)
+        if (input != null && input.length > MAX_FRAME_BYTES) {
+            throw new IllegalArgumentException("입력 데이터가 너무 큽니다: " + input.length + " bytes");
+        }
+
+        byte[] body = objectMapper.writeValueAsBytes(request);
+        stdin.writeInt(body.length);
+        stdin.write(body);
+        if (input != null) {
+            stdin.writeInt(input.length);
+            stdin.write(input);
+        }
+        stdin.flush();
+
+        int length;
+        try {
+            length = stdout.readInt();
+        } catch (EOFException e) {
+            throw new IOException("Python worker " + name + " closed stdout", e);
+        }
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Python worker " + name + " sent invalid frame length: " + length);
+        }
+
+        byte[] frame = new byte[length];
+        stdout.readFully(frame);
+        return objectMapper.readTree(frame);
+    }
+
+    private void drainStderr() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                log.warn("[{}] {}", name, line);
+            }
+        } catch (IOException ignored) {
+            // 프로세스 종료 시 스트림이 닫히면서 발생 → 무시
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.synergy.bokja.python;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * 스크립트별 상주 Python 워커 풀 관리
+ * - 기존: OCR/LLM/TTS 호출마다 python3 프로세스를 새로 띄움 (매번 openai, requests, texttospeech import)
+ * - 변경: 스크립트별로 --worker 모드 인터프리터를 띄워 두고 재사용 (기동 비용은 최초 1회)
+ */
+@Component
+@RequiredArgsConstructor
+public class PythonWorkerManager {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${python.script.ocr}")
+    private String ocrScriptPath;
+
+    @Value("${python.script.llm}")
+    private String llmScriptPath;
+
+    @Value("${python.script.tts}")
+    private String ttsScriptPath;
+
+    @Value("${python.worker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${python.worker.ocr.pool-size:2}")
+    private int ocrPoolSize;
+
+    @Value("${python.worker.llm.pool-size:4}")
+    private int llmPoolSize;
+
+    @Value("${python.worker.tts.pool-size:2}")
+    private int ttsPoolSize;
+
+    // 헬스 체크 ping 응답 제한 시간 (넘기면 워커를 강제 종료하고 다시 띄움)
+    @Value("${python.worker.ping-timeout-ms:5000}")
+    private long pingTimeoutMs;
+
+    // ping 제한 시간 감시 (PythonBridge의 요청용 watchdog과 같은 방식)
+    private final ScheduledExecutorService pingWatchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "python-worker-ping-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<PythonScript, PythonWorkerPool> pools = new EnumMap<>(PythonScript.class);
+
+    /** false면 PythonBridge가 호출마다 프로세스를 띄우는 방식(one-shot)으로 동작 */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 스크립트를 워커로 실행하고, CLI 모드에서 stdout에 찍히던 JSON 문자열을 반환
+     * (args는 기존 ProcessBuilder 호출 시 스크립트 경로 뒤에 붙이던 인자와 동일, input은 바이너리 입력 또는 null)
+     * 동시성 제한/타임아웃은 PythonBridge에서 관리하므로 직접 호출하지 말 것
+     */
+    String execute(PythonScript script, List<String> args, byte[] input, long timeoutMs,
+                   ScheduledExecutorService watchdog, Consumer<PythonWorker> onBorrow)
+            throws IOException, InterruptedException {
+        return getPool(script).execute(args, input, timeoutMs, watchdog, onBorrow);
+    }
+
+    int poolSizeOf(PythonScript script) {
+        return switch (script) {
+            case OCR -> ocrPoolSize;
+            case LLM -> llmPoolSize;
+            case TTS -> ttsPoolSize;
+        };
+    }
+
+    /**
+     * python3 -u /abs/path/script.py (워커 모드는 뒤에 --worker, one-shot 모드는 뒤에 CLI 인자)
+     */
+    List<String> baseCommand(PythonScript script) {
+        // Windows 환경 고려: python, 그 외 python3
+        String pythonCommand = System.getProperty("os.name").toLowerCase().contains("win") ? "python" : "python3";
+
+        // 스크립트 경로를 절대 경로로 변환 (상대 경로는 프로젝트 루트 기준)
+        String scriptPath = scriptPathOf(script);
+        File scriptFile = new File(scriptPath);
+        if (!scriptFile.isAbsolute()) {
+            scriptFile = new File(System.getProperty("user.dir"), scriptPath);
+        }
+
+        // -u: stdout 버퍼링 없이 결과를 바로 흘려보냄
+        return List.of(pythonCommand, "-u", scriptFile.getAbsolutePath());
+    }
+
+    /** 기동 완료 후 풀을 미리 채워서 첫 요청의 콜드 스타트를 없앰 */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        for (PythonScript script : PythonScript.values()) {
+            getPool(script).warmUp();
+        }
+    }
+
+    /** 주기적으로 쉬고 있는 워커에 ping → 죽은 워커 재시작 */
+    @Scheduled(fixedDelayString = "${python.worker.health-check-interval-ms:30000}")
+    public void healthCheck() {
+        if (!enabled) {
+            return;
+        }
+        List<PythonWorkerPool> snapshot;
+        synchronized (pools) {
+            snapshot = List.copyOf(pools.values());
+        }
+        snapshot.forEach(pool -> pool.healthCheck(pingWatchdog, pingTimeoutMs));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (pools) {
+            pools.values().forEach(PythonWorkerPool::shutdown);
+            pools.clear();
+        }
+        pingWatchdog.shutdownNow();
+    }
+
+    private PythonWorkerPool getPool(PythonScript script) {
+        synchronized (pools) {
+            return pools.computeIfAbsent(script, s ->
+                    new PythonWorkerPool(s, workerCommand(s), poolSizeOf(s), objectMapper));
+        }
+    }
+
+    private List<String> workerCommand(PythonScript script) {
+        List<String> command = new ArrayList<>(baseCommand(script));
+        command.add("--worker");
+        return command;
+    }
+
+    private String scriptPathOf(PythonScript script) {
+        return switch (script) {
+            case OCR -> ocrScriptPath;
+            case LLM -> llmScriptPath;
+            case TTS -> ttsScriptPath;
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package com.synergy.bokja.python;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 스크립트 1종에 대한 상주 워커 풀
+ * - 최대 poolSize개의 워커를 띄워 두고 빌려 쓰고 반납
+ * - 호출 중 워커가 죽으면(IOException) 폐기하고, 다음 대여/헬스 체크 때 새로 띄움
+ */
+class PythonWorkerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(PythonWorkerPool.class);
+
+    private final PythonScript script;
+    private final List<String> command;
+    private final int poolSize;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<PythonWorker> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger liveCount = new AtomicInteger();
+    private final AtomicInteger spawnCount = new AtomicInteger();
+
+    private volatile boolean closed = false;
+
+    PythonWorkerPool(PythonScript script, List<String> command, int poolSize, ObjectMapper objectMapper) {
+        this.script = script;
+        this.command = command;
+        this.poolSize = Math.max(1, poolSize);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 워커를 빌려 요청을 처리
+     * - timeoutMs가 지나면 watchdog이 워커 프로세스 트리를 강제 종료 → PythonTimeoutException
+     * - onBorrow: 취소 시 워커를 죽일 수 있도록 현재 워커를 호출자에게 알려줌
+     */
+    String execute(List<String> args, byte[] input, long timeoutMs, ScheduledExecutorService watchdog,
+                   Consumer<PythonWorker> onBorrow) throws IOException, InterruptedException {
+        PythonWorker worker = borrow();
+        onBorrow.accept(worker);
+        ScheduledFuture<?> killer = watchdog.schedule(worker::killTree, timeoutMs, TimeUnit.MILLISECONDS);
+        boolean healthy = true;
+        try {
+            return worker.call(args, input);
+        } catch (IOException e) {
+            healthy = false;
+            if (killer.isDone() && worker.isKilled()) {
+                throw new PythonTimeoutException(script, timeoutMs);
+            }
+            throw e;
+        } finally {
+            killer.cancel(false);
+            release(worker, healthy);
+        }
+    }
+
+    /** 풀 크기만큼 워커를 미리 띄움 (실패해도 다음 대여 때 다시 시도) */
+    void warmUp() {
+        while (!closed && liveCount.get() < poolSize) {
+            if (liveCount.incrementAndGet() > poolSize) {
+                liveCount.decrementAndGet();
+                return;
+            }
+            try {
+                idle.offer(spawn());
+            } catch (IOException e) {
+                liveCount.decrementAndGet();
+                log.warn("[PythonWorkerPool] {} 워커 기동 실패: {}", script.getKey(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /** 쉬고 있는 워커에 ping을 보내고, pingTimeoutMs 안에 응답 없는 워커는 폐기 후 다시 채움 */
+    void healthCheck(ScheduledExecutorService watchdog, long pingTimeoutMs) {
+        List<PythonWorker> snapshot = new ArrayList<>();
+        idle.drainTo(snapshot);
+        for (PythonWorker worker : snapshot) {
+            if (worker.ping(watchdog, pingTimeoutMs)) {
+                idle.offer(worker);
+            } else {
+                log.warn("[PythonWorkerPool] {} 응답 없음 → 재시작", worker.getName());
+                discard(worker);
+            }
+        }
+        warmUp();
+    }
+
+    void shutdown() {
+        closed = true;
+        List<PythonWorker> snapshot = new ArrayList<>();
+        idle.drainTo(snapshot);
+        snapshot.forEach(this::discard);
+    }
+
+    private PythonWorker borrow() throws IOException, InterruptedException {
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Python worker pool(" + script.getKey() + ")이 종료되었습니다.");
+            }
+
+            PythonWorker worker = idle.poll();
+            if (worker != null) {
+                if (worker.isAlive()) return worker;
+                discard(worker);
+                continue;
+            }
+
+            // 여유가 있으면 새 워커를 띄움
+            if (liveCount.incrementAndGet() <= poolSize) {
+                try {
+                    return spawn();
+                } catch (IOException e) {
+                    liveCount.decrementAndGet();
+                    throw e;
+                }
+            }
+            liveCount.decrementAndGet();
+
+            // 모두 사용 중이면 반납을 기다림 (중간에 워커가 폐기되면 다시 띄울 수 있도록 주기적으로 재확인)
+            worker = idle.poll(1, TimeUnit.SECONDS);
+            if (worker != null) {
+                if (worker.isAlive()) return worker;
+                discard(worker);
+            }
+        }
+    }
+
+    private void release(PythonWorker worker, boolean healthy) {
+        if (healthy && worker.isAlive() && !worker.isKilled() && !closed) {
+            idle.offer(worker);
+        } else {
+            discard(worker);
+        }
+    }
+
+    private void discard(PythonWorker worker) {
+        worker.destroy();
+        liveCount.decrementAndGet();
+    }
+
+    private PythonWorker spawn() throws IOException {
+        String name = "python-" + script.getKey() + "-" + spawnCount.incrementAndGet();
+        log.info("[PythonWorkerPool] {} 기동: {}", name, command);
+        return new PythonWorker(name, command, objectMapper);
+    }
+}
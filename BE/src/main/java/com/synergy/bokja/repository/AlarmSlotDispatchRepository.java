@@ -0,0 +1,29 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.AlarmSlotDispatchEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Optional;
+
+public interface AlarmSlotDispatchRepository extends JpaRepository<AlarmSlotDispatchEntity, Long> {
+
+    @Query("SELECT d.dispatchedUpTo FROM AlarmSlotDispatchEntity d WHERE d.dispatchDate = :date")
+    Optional<LocalTime> findDispatchedUpTo(@Param("date") LocalDate date);
+
+    // 워터마크 전진 (뒤로는 가지 않음). 슬롯 알림을 outbox에 등록하는 트랜잭션에 참여
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO alarm_slot_dispatch_table (dispatch_date, dispatched_up_to, updated_at) " +
+            "VALUES (:date, :time, :now) " +
+            "ON DUPLICATE KEY UPDATE dispatched_up_to = GREATEST(dispatched_up_to, VALUES(dispatched_up_to)), " +
+            "updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int advance(@Param("date") LocalDate date, @Param("time") LocalTime time, @Param("now") LocalDateTime now);
+}
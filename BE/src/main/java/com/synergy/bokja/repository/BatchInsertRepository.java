@@ -0,0 +1,180 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * 대량 INSERT 전용 (JDBC batch)
+ * - 모든 엔터티가 IDENTITY 키라 Hibernate는 INSERT를 묶지 못하고 한 행씩 왕복함
+ *   → 자주 여러 행이 한꺼번에 들어가는 테이블(이벤트, 안내 문구, 퀴즈 보기, 알림 시간, 컨디션 기록, 알림 outbox)은 여기서 executeBatch
+ * - rewriteBatchedStatements=true(MySQL)면 배치 하나가 multi-row INSERT 한 번으로 전송됨
+ * - 생성된 키는 입력 순서대로 엔터티 ID 필드에 채워 줌 (저장 후 ID를 쓰는 호출 측 코드는 그대로)
+ * - 호출 측 트랜잭션(JPA)과 같은 커넥션을 사용. 저장된 엔터티는 영속성 컨텍스트에 올라가지 않으므로 이후 수정은 하지 말 것
+ */
+@Repository
+@RequiredArgsConstructor
+public class BatchInsertRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public void insertEvents(List<EventEntity> events) {
+        insert("INSERT INTO event_table (umno, atno, enno, dno, qno, status, event_date, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                events,
+                (ps, e) -> {
+                    setLong(ps, 1, e.getUserMedicine() != null ? e.getUserMedicine().getUmno() : null);
+                    setLong(ps, 2, e.getAlarmTime() != null ? e.getAlarmTime().getAtno() : null);
+                    setLong(ps, 3, e.getEventName() != null ? e.getEventName().getEnno() : null);
+                    setLong(ps, 4, e.getDescription() != null ? e.getDescription().getDno() : null);
+                    setLong(ps, 5, e.getQuiz() != null ? e.getQuiz().getQno() : null);
+                    ps.setString(6, e.getStatus().name());
+                    setDate(ps, 7, e.getEventDate());
+                    setDateTime(ps, 8, e.getCreatedAt());
+                    setDateTime(ps, 9, e.getUpdatedAt());
+                },
+                EventEntity::setEno);
+    }
+
+    public void insertDescriptions(List<DescriptionEntity> descriptions) {
+        insert("INSERT INTO description_table (description, umno, enno, created_at, updated_at) VALUES (?, ?, ?, ?, ?)",
+                descriptions,
+                (ps, d) -> {
+                    ps.setString(1, d.getDescription());
+                    setLong(ps, 2, d.getUserMedicine() != null ? d.getUserMedicine().getUmno() : null);
+                    setLong(ps, 3, d.getEventName() != null ? d.getEventName().getEnno() : null);
+                    setDateTime(ps, 4, d.getCreatedAt());
+                    setDateTime(ps, 5, d.getUpdatedAt());
+                },
+                DescriptionEntity::setDno);
+    }
+
+    public void insertQuizOptions(List<QuizOptionEntity> options) {
+        insert("INSERT INTO quiz_option_table (qno, content, is_correct) VALUES (?, ?, ?)",
+                options,
+                (ps, o) -> {
+                    setLong(ps, 1, o.getQuiz() != null ? o.getQuiz().getQno() : null);
+                    ps.setString(2, o.getContent());
+                    ps.setBoolean(3, Boolean.TRUE.equals(o.getIsCorrect()));
+                },
+                QuizOptionEntity::setQono);
+    }
+
+    public void insertAlarmTimes(List<AlarmTimeEntity> alarmTimes) {
+        insert("INSERT INTO alarm_time_table (umno, tno) VALUES (?, ?)",
+                alarmTimes,
+                (ps, a) -> {
+                    setLong(ps, 1, a.getUserMedicine() != null ? a.getUserMedicine().getUmno() : null);
+                    setLong(ps, 2, a.getTime() != null ? a.getTime().getTno() : null);
+                },
+                AlarmTimeEntity::setAtno);
+    }
+
+    public void insertConditions(List<ConditionEntity> conditions) {
+        insert("INSERT INTO condition_table (time, uno, efno) VALUES (?, ?, ?)",
+                conditions,
+                (ps, c) -> {
+                    setDateTime(ps, 1, c.getTime());
+                    setLong(ps, 2, c.getUser().getUno());
+                    setLong(ps, 3, c.getEffect().getEfno());
+                },
+                ConditionEntity::setCdno);
+    }
+
+    private static final String INSERT_NOTIFICATION = "INSERT INTO notification_outbox_table " +
+            "(uno, token, type, title, body, data_json, status, attempts, available_at, created_at, dedupe_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public void insertNotifications(List<NotificationOutboxEntity> notifications) {
+        insert(INSERT_NOTIFICATION, notifications, BatchInsertRepository::bindNotification, NotificationOutboxEntity::setNono);
+    }
+
+    // dedupe_key가 이미 있는 알림은 건너뜀 (같은 알림을 재시도로 다시 등록해도 한 번만 남음)
+    // 건너뛴 행이 섞이면 생성 키 순서를 맞출 수 없으므로 nono는 채우지 않음
+    public void insertNotificationsIfAbsent(List<NotificationOutboxEntity> notifications) {
+        if (notifications.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION + " ON DUPLICATE KEY UPDATE nono = nono",
+                notifications, batchSize, BatchInsertRepository::bindNotification);
+    }
+
+    private static void bindNotification(PreparedStatement ps, NotificationOutboxEntity n) throws SQLException {
+        setLong(ps, 1, n.getUno());
+        ps.setString(2, n.getToken());
+        ps.setString(3, n.getType());
+        ps.setString(4, n.getTitle());
+        ps.setString(5, n.getBody());
+        ps.setString(6, n.getDataJson());
+        ps.setString(7, n.getStatus());
+        ps.setInt(8, n.getAttempts());
+        setDateTime(ps, 9, n.getAvailableAt());
+        setDateTime(ps, 10, n.getCreatedAt());
+        ps.setString(11, n.getDedupeKey());
+    }
+
+    public void insertBatchRuns(List<BatchRunEntity> runs) {
+        insert("INSERT INTO batch_run_table (run_date, uno, created_at) VALUES (?, ?, ?)",
+                runs,
+                (ps, r) -> {
+                    setDate(ps, 1, r.getRunDate());
+                    setLong(ps, 2, r.getUno());
+                    setDateTime(ps, 3, r.getCreatedAt());
+                },
+                BatchRunEntity::setBrno);
+    }
+
+    private <T> void insert(String sql, List<T> rows, Binder<T> binder, BiConsumer<T, Long> idSetter) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    List<T> slice = rows.subList(from, Math.min(from + batchSize, rows.size()));
+                    for (T row : slice) {
+                        binder.bind(ps, row);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (T row : slice) {
+                            if (!keys.next()) break;
+                            idSetter.accept(row, keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.BIGINT);
+        else ps.setLong(index, value);
+    }
+
+    private static void setDate(PreparedStatement ps, int index, LocalDate value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.DATE);
+        else ps.setDate(index, Date.valueOf(value));
+    }
+
+    private static void setDateTime(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.TIMESTAMP);
+        else ps.setTimestamp(index, Timestamp.valueOf(value));
+    }
+
+    @FunctionalInterface
+    private interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+}
@@ -0,0 +1,60 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.BatchLockEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface BatchLockRepository extends JpaRepository<BatchLockEntity, Long> {
+
+    // 잠금 행이 없으면 만들면서 획득 (이미 있으면 무시되고 0)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO batch_lock_table (lock_name, owner, acquired_at, heartbeat_at, expires_at) " +
+            "VALUES (:name, :owner, NOW(3), NOW(3), TIMESTAMPADD(MICROSECOND, :ttlMs * 1000, NOW(3)))",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("owner") String owner, @Param("ttlMs") long ttlMs);
+
+    // 만료된(또는 이미 내 것인) 미완료 잠금 가져오기 → 1이면 획득
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE batch_lock_table SET owner = :owner, acquired_at = NOW(3), heartbeat_at = NOW(3), " +
+            "expires_at = TIMESTAMPADD(MICROSECOND, :ttlMs * 1000, NOW(3)) " +
+            "WHERE lock_name = :name AND completed_at IS NULL AND (owner = :owner OR expires_at < NOW(3))",
+            nativeQuery = true)
+    int takeOver(@Param("name") String name, @Param("owner") String owner, @Param("ttlMs") long ttlMs);
+
+    // heartbeat: 아직 내 잠금이면 만료 시각 연장 → 0이면 잠금을 잃음
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE batch_lock_table SET heartbeat_at = NOW(3), " +
+            "expires_at = TIMESTAMPADD(MICROSECOND, :ttlMs * 1000, NOW(3)) " +
+            "WHERE lock_name = :name AND owner = :owner AND completed_at IS NULL",
+            nativeQuery = true)
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("ttlMs") long ttlMs);
+
+    // 반납: 바로 만료시켜 다른 인스턴스가 가져갈 수 있게
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE batch_lock_table SET expires_at = NOW(3) " +
+            "WHERE lock_name = :name AND owner = :owner AND completed_at IS NULL",
+            nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    // 완료 표시: 이후 누구도 다시 가져가지 않음
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE batch_lock_table SET completed_at = NOW(3), expires_at = NOW(3) " +
+            "WHERE lock_name = :name AND owner = :owner AND completed_at IS NULL",
+            nativeQuery = true)
+    int complete(@Param("name") String name, @Param("owner") String owner);
+
+    // 만료된 지 retentionDays가 지난 잠금 정리 (지난 날짜의 배치 파티션 등)
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM batch_lock_table WHERE expires_at < NOW(3) - INTERVAL :retentionDays DAY",
+            nativeQuery = true)
+    int deleteExpiredBefore(@Param("retentionDays") int retentionDays);
+}
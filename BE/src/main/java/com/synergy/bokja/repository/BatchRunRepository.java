@@ -0,0 +1,24 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.BatchRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BatchRunRepository extends JpaRepository<BatchRunEntity, Long> {
+
+    // unos 중 runDate 이벤트 생성이 이미 끝난 사용자
+    @Query("SELECT b.uno FROM BatchRunEntity b WHERE b.runDate = :runDate AND b.uno IN :unos")
+    List<Long> findDoneUnos(@Param("runDate") LocalDate runDate, @Param("unos") List<Long> unos);
+
+    // 보관 기간이 지난 실행 기록 정리
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BatchRunEntity b WHERE b.runDate < :before")
+    int deleteByRunDateBefore(@Param("before") LocalDate before);
+}
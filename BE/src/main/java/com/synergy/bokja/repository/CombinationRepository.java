@@ -17,6 +17,10 @@ public interface CombinationRepository extends JpaRepository<CombinationEntity,
 
     List<CombinationEntity> findAllByIngredientIsNotNull();
 
+    // 병용주의 인덱스 갱신 여부 판단용
+    @Query("SELECT MAX(c.cbno) FROM CombinationEntity c")
+    Long findMaxCbno();
+
     @Query("SELECT c FROM CombinationEntity c " +
             "WHERE c.name IN :names " +
             "OR c.ingredient IN :ingredients " +
@@ -2,8 +2,11 @@ package com.synergy.bokja.repository;
 
 import com.synergy.bokja.entity.ConditionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,4 +20,21 @@ public interface ConditionRepository extends JpaRepository<ConditionEntity, Long
     );
 
     List<ConditionEntity> findAllByUser_UnoAndTimeBetween(Long uno, LocalDateTime start, LocalDateTime end);
+
+    // [리포트] 기간 내 부작용 기록을 (주차, efno)별로 집계. week = startDate부터 지난 일수 / 7 (0부터)
+    @Query(value = "SELECT DATEDIFF(c.time, :startDate) DIV 7 AS week, c.efno AS efno, COUNT(*) AS cnt " +
+            "FROM condition_table c " +
+            "WHERE c.uno = :uno AND c.time >= :from AND c.time < :to " +
+            "GROUP BY week, c.efno",
+            nativeQuery = true)
+    List<WeeklyEffectCount> countWeeklyEffects(@Param("uno") Long uno,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    interface WeeklyEffectCount {
+        Long getWeek();
+        Long getEfno();
+        Long getCnt();
+    }
 }
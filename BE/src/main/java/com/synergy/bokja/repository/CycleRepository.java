@@ -2,7 +2,12 @@ package com.synergy.bokja.repository;
 
 import com.synergy.bokja.entity.CycleEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +16,18 @@ public interface CycleRepository extends JpaRepository<CycleEntity, Long> {
     CycleEntity findByCyno(Long cyno);
     Optional<CycleEntity> findByUserMedicine_Umno(Long umno);
     List<CycleEntity> findAllByUserMedicine_UmnoIn(List<Long> umnoList);
+
+    // [일간 배치 SQL 모드] cur_cycle += 이번 실행에서 만든 이벤트 수 (복약 정보별 한 번의 그룹 UPDATE)
+    @Modifying
+    @Query(value = "UPDATE cycle_table c " +
+            "JOIN (SELECT e.umno, COUNT(*) AS cnt FROM event_table e " +
+            "      JOIN user_medicine_table um ON um.umno = e.umno " +
+            "      WHERE um.uno IN (:unos) AND e.enno = 1 AND e.created_at = :now " +
+            "      GROUP BY e.umno) t ON t.umno = c.umno " +
+            "SET c.cur_cycle = COALESCE(c.cur_cycle, 0) + t.cnt " +
+            "WHERE :today BETWEEN c.start_date AND c.end_date",
+            nativeQuery = true)
+    int incrementCurCycleForDailyEvents(@Param("unos") List<Long> unos,
+                                        @Param("today") LocalDate today,
+                                        @Param("now") LocalDateTime now);
 }
\ No newline at end of file
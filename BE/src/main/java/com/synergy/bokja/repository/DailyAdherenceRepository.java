@@ -0,0 +1,68 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.DailyAdherenceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DailyAdherenceRepository extends JpaRepository<DailyAdherenceEntity, Long> {
+
+    List<DailyAdherenceEntity> findAllByUmnoAndAdherenceDateBetweenOrderByAdherenceDate(
+            Long umno, LocalDate start, LocalDate end);
+
+    // 발행 건수 증가 (행이 없으면 생성) - 일간 배치 Java 경로, 복약 정보별
+    @Modifying
+    @Query(value = "INSERT INTO daily_adherence_table (umno, adherence_date, issued_count, completed_count, updated_at) " +
+            "VALUES (:umno, :date, :count, 0, :now) " +
+            "ON DUPLICATE KEY UPDATE issued_count = issued_count + :count, updated_at = :now",
+            nativeQuery = true)
+    int addIssued(@Param("umno") Long umno,
+                  @Param("date") LocalDate date,
+                  @Param("count") int count,
+                  @Param("now") LocalDateTime now);
+
+    // 발행 건수 증가 - 일간 배치 SQL 경로: 이번 실행(created_at = :now)에서 만든 이벤트를 복약 정보별로 세어 한 번에
+    @Modifying
+    @Query(value = "INSERT INTO daily_adherence_table (umno, adherence_date, issued_count, completed_count, updated_at) " +
+            "SELECT e.umno, :today, COUNT(*), 0, :now FROM event_table e " +
+            "JOIN user_medicine_table um ON um.umno = e.umno " +
+            "WHERE um.uno IN (:unos) AND e.enno = 1 AND e.created_at = :now " +
+            "GROUP BY e.umno " +
+            "ON DUPLICATE KEY UPDATE issued_count = issued_count + VALUES(issued_count), updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int addIssuedForDailyEvents(@Param("unos") List<Long> unos,
+                                @Param("today") LocalDate today,
+                                @Param("now") LocalDateTime now);
+
+    // 완료 건수 증가 (행이 없으면 생성)
+    @Modifying
+    @Query(value = "INSERT INTO daily_adherence_table (umno, adherence_date, issued_count, completed_count, updated_at) " +
+            "VALUES (:umno, :date, 0, 1, :now) " +
+            "ON DUPLICATE KEY UPDATE completed_count = completed_count + 1, updated_at = :now",
+            nativeQuery = true)
+    int addCompleted(@Param("umno") Long umno,
+                     @Param("date") LocalDate date,
+                     @Param("now") LocalDateTime now);
+
+    // [백필] 복약 정보 구간 (afterUmno, lastUmno]의 event_table 전체를 (복약 정보, 이벤트 날짜 - 없으면 생성 날짜)별로
+    // 다시 집계해 덮어씀 (몇 번 돌려도 결과 동일, 복약 정보 단위로 끊으므로 한 날짜가 여러 구간에 나뉘지 않음)
+    // 완료 건수는 실시간 경로(EventService.updateEventStatus)와 같은 기준: 완료 상태이고 이벤트 날짜 당일에 완료된 것만
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO daily_adherence_table (umno, adherence_date, issued_count, completed_count, updated_at) " +
+            "SELECT e.umno, COALESCE(e.event_date, DATE(e.created_at)), COUNT(*), " +
+            "       SUM(CASE WHEN e.status = '완료' AND DATE(e.updated_at) = COALESCE(e.event_date, DATE(e.created_at)) THEN 1 ELSE 0 END), NOW() " +
+            "FROM event_table e " +
+            "WHERE e.umno > :afterUmno AND e.umno <= :lastUmno " +
+            "GROUP BY e.umno, COALESCE(e.event_date, DATE(e.created_at)) " +
+            "ON DUPLICATE KEY UPDATE issued_count = VALUES(issued_count), " +
+            "completed_count = VALUES(completed_count), updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int recompute(@Param("afterUmno") Long afterUmno, @Param("lastUmno") Long lastUmno);
+}
@@ -2,7 +2,12 @@ package com.synergy.bokja.repository;
 
 import com.synergy.bokja.entity.DescriptionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface DescriptionRepository extends JpaRepository<DescriptionEntity, Long> {
@@ -12,4 +17,20 @@ public interface DescriptionRepository extends JpaRepository<DescriptionEntity,
     List<DescriptionEntity> findAllByEventName_Enno(Long enno);
 
     List<DescriptionEntity> findAllByUserMedicine_UmnoInAndEventName_Enno(List<Long> umnoList, Long enno);
+
+    // [일간 배치 SQL 모드] 오늘 복용 기간에 해당하는 복약 정보마다 '알림'(enno=1) 안내 문구 1건
+    // (EventService.generateEventsForUser의 문구와 동일, created_at = :now 로 이번 실행분을 구분)
+    // 오늘(event_date) 이벤트가 아직 없는 알림 시간이 남은 복약 정보만 (재실행 시 이벤트 없는 문구가 쌓이지 않도록)
+    @Modifying
+    @Query(value = "INSERT INTO description_table (description, umno, enno, created_at) " +
+            "SELECT CONCAT(um.category, '약 먹을 시간이에요! 아래 퀴즈를 풀어주세요'), um.umno, 1, :now " +
+            "FROM user_medicine_table um " +
+            "JOIN cycle_table c ON c.umno = um.umno " +
+            "WHERE um.uno IN (:unos) AND :today BETWEEN c.start_date AND c.end_date " +
+            "AND EXISTS (SELECT 1 FROM alarm_time_table a WHERE a.umno = um.umno " +
+            "    AND NOT EXISTS (SELECT 1 FROM event_table e WHERE e.atno = a.atno AND e.event_date = :today))",
+            nativeQuery = true)
+    int insertDailyAlarmDescriptions(@Param("unos") List<Long> unos,
+                                     @Param("today") LocalDate today,
+                                     @Param("now") LocalDateTime now);
 }
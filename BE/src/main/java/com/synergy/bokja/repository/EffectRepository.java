@@ -2,7 +2,12 @@ package com.synergy.bokja.repository;
 
 import com.synergy.bokja.entity.EffectEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface EffectRepository extends JpaRepository<EffectEntity, Long> {
     EffectEntity findByEfno(Long efno);
+
+    // 부작용 사전 갱신 여부 판단용
+    @Query("SELECT MAX(e.efno) FROM EffectEntity e")
+    Long findMaxEfno();
 }
@@ -1,9 +1,14 @@
 package com.synergy.bokja.repository;
 
+import com.synergy.bokja.dto.fcm.AlarmSlotTarget;
 import com.synergy.bokja.entity.EventEntity;
 import com.synergy.bokja.entity.EventStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,4 +22,65 @@ public interface EventRepository extends JpaRepository<EventEntity, Long> {
             LocalDateTime start,
             LocalDateTime end
     );
+
+    // [오늘의 이벤트] 해당 날짜(day)의 이벤트
+    // event_date 기준 (밀린 날짜를 나중에 생성해도 생성 시각이 아닌 해당 날짜로), event_date가 없는 예전 행은 created_at이 [from, to)
+    @Query("SELECT e FROM EventEntity e WHERE e.userMedicine.user.uno = :uno AND e.status = :status " +
+            "AND (e.eventDate = :day OR (e.eventDate IS NULL AND e.createdAt >= :from AND e.createdAt < :to))")
+    List<EventEntity> findAllByUnoAndStatusOn(@Param("uno") Long uno,
+                                              @Param("status") EventStatus status,
+                                              @Param("day") LocalDate day,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    // [알림 슬롯] 해당 날짜(day)의 '발행' 알림 이벤트 → (사용자, 토큰, 이벤트, 알림 시각). 토큰 없는 사용자 제외
+    // 날짜 조건은 findAllByUnoAndStatusOn과 동일 (event_date 기준, 없으면 created_at이 [from, to))
+    @Query("SELECT new com.synergy.bokja.dto.fcm.AlarmSlotTarget(u.uno, u.fcmToken, e.eno, t.time) " +
+            "FROM EventEntity e JOIN e.userMedicine um JOIN um.user u JOIN e.alarmTime a JOIN a.time t " +
+            "WHERE e.eventName.enno = 1 AND e.status = :status " +
+            "AND (e.eventDate = :day OR (e.eventDate IS NULL AND e.createdAt >= :from AND e.createdAt < :to)) " +
+            "AND u.fcmToken IS NOT NULL AND u.fcmToken <> ''")
+    List<AlarmSlotTarget> findAlarmSlotTargets(@Param("status") EventStatus status,
+                                               @Param("day") LocalDate day,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    // [알림 슬롯] 위와 같고 사용자 1명만 (알림 시간 변경 시 해당 사용자만 다시 구성)
+    @Query("SELECT new com.synergy.bokja.dto.fcm.AlarmSlotTarget(u.uno, u.fcmToken, e.eno, t.time) " +
+            "FROM EventEntity e JOIN e.userMedicine um JOIN um.user u JOIN e.alarmTime a JOIN a.time t " +
+            "WHERE u.uno = :uno AND e.eventName.enno = 1 AND e.status = :status " +
+            "AND (e.eventDate = :day OR (e.eventDate IS NULL AND e.createdAt >= :from AND e.createdAt < :to)) " +
+            "AND u.fcmToken IS NOT NULL AND u.fcmToken <> ''")
+    List<AlarmSlotTarget> findAlarmSlotTargetsByUno(@Param("uno") Long uno,
+                                                    @Param("status") EventStatus status,
+                                                    @Param("day") LocalDate day,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    // [일간 배치 SQL 모드] 방금 만든 이벤트 (FCM 메시지 생성용)
+    List<EventEntity> findAllByUserMedicine_User_UnoInAndEventName_EnnoAndCreatedAt(
+            List<Long> unos, Long enno, LocalDateTime createdAt);
+
+    // [일간 배치 SQL 모드] 알림 시간마다 이벤트 1건: 방금 만든 안내 문구 + 해당 복약 정보의 퀴즈 중 랜덤 1개 (없으면 NULL)
+    // 안내 문구가 만들어진(= 오늘 복용 기간인) 복약 정보만 대상, 이미 (atno, event_date) 이벤트가 있으면 건너뜀
+    @Modifying
+    @Query(value = "INSERT INTO event_table (umno, atno, enno, dno, qno, status, event_date, created_at) " +
+            "SELECT a.umno, a.atno, 1, d.dno, " +
+            "       (SELECT q.qno FROM quiz_table q WHERE q.umno = a.umno ORDER BY RAND() LIMIT 1), " +
+            "       '발행', :today, :now " +
+            "FROM alarm_time_table a " +
+            "JOIN user_medicine_table um ON um.umno = a.umno " +
+            "JOIN description_table d ON d.dno = (" +
+            "    SELECT MAX(d2.dno) FROM description_table d2 " +
+            "    WHERE d2.umno = a.umno AND d2.enno = 1 AND d2.created_at = :now) " +
+            "WHERE um.uno IN (:unos) " +
+            "ON DUPLICATE KEY UPDATE eno = eno",
+            nativeQuery = true)
+    int insertDailyAlarmEvents(@Param("unos") List<Long> unos,
+                               @Param("today") LocalDate today,
+                               @Param("now") LocalDateTime now);
+
+    // [일간 배치] 알림 시간들 중 해당 날짜 이벤트가 이미 있는 것 (재실행 시 중복 생성 방지)
+    @Query("SELECT e.alarmTime.atno FROM EventEntity e WHERE e.alarmTime.atno IN :atnos AND e.eventDate = :eventDate")
+    List<Long> findAtnosWithEventOn(@Param("atnos") List<Long> atnos, @Param("eventDate") LocalDate eventDate);
 }
@@ -0,0 +1,23 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.LlmCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface LlmCacheRepository extends JpaRepository<LlmCacheEntity, Long> {
+
+    List<LlmCacheEntity> findAllByCacheKeyInAndExpiresAtAfter(Collection<String> cacheKeys, LocalDateTime now);
+
+    // 만료된 캐시 정리
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmCacheEntity c WHERE c.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
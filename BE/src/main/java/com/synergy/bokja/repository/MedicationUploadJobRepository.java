@@ -0,0 +1,62 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.MedicationUploadJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface MedicationUploadJobRepository extends JpaRepository<MedicationUploadJobEntity, Long> {
+
+    Optional<MedicationUploadJobEntity> findByJobId(String jobId);
+
+    // 같은 이미지로 since 이후 등록된 가장 최근 작업 (중복 업로드 감지)
+    Optional<MedicationUploadJobEntity> findFirstByUnoAndModeAndImageSha256AndCreatedAtAfterOrderByCreatedAtDesc(
+            Long uno, String mode, String imageSha256, LocalDateTime since);
+
+    // perceptual hash 비교 후보 (사용자 1명의 window 안 업로드라 몇 건 안 됨)
+    List<MedicationUploadJobEntity> findAllByUnoAndModeAndImageDhashIsNotNullAndCreatedAtAfter(
+            Long uno, String mode, LocalDateTime since);
+
+    // 진행 단계 갱신 (작업 스레드에서 단계가 바뀔 때마다)
+    @Transactional
+    @Modifying
+    @Query("UPDATE MedicationUploadJobEntity j SET j.status = :status, j.stage = :stage, j.updatedAt = :now " +
+            "WHERE j.jobId = :jobId AND j.finishedAt IS NULL")
+    int updateProgress(@Param("jobId") String jobId,
+                       @Param("status") String status,
+                       @Param("stage") String stage,
+                       @Param("now") LocalDateTime now);
+
+    // 완료/실패 기록
+    @Transactional
+    @Modifying
+    @Query("UPDATE MedicationUploadJobEntity j SET j.status = :status, j.stage = :stage, j.umno = :umno, " +
+            "j.message = :message, j.updatedAt = :now, j.finishedAt = :now " +
+            "WHERE j.jobId = :jobId AND j.finishedAt IS NULL")
+    int finish(@Param("jobId") String jobId,
+               @Param("status") String status,
+               @Param("stage") String stage,
+               @Param("umno") Long umno,
+               @Param("message") String message,
+               @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MedicationUploadJobEntity j WHERE j.jobId = :jobId")
+    int deleteByJobId(@Param("jobId") String jobId);
+
+    // 끝난 지 오래된 작업 / 실행 인스턴스가 죽어 끝나지 못한 채 오래된 작업 정리
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MedicationUploadJobEntity j " +
+            "WHERE (j.finishedAt IS NOT NULL AND j.finishedAt < :finishedBefore) " +
+            "OR (j.finishedAt IS NULL AND j.updatedAt < :abandonedBefore)")
+    int deleteExpired(@Param("finishedBefore") LocalDateTime finishedBefore,
+                      @Param("abandonedBefore") LocalDateTime abandonedBefore);
+}
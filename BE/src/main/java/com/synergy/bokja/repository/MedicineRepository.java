@@ -15,6 +15,16 @@ public interface MedicineRepository extends JpaRepository<MedicineEntity, Long>
 
     MedicineEntity findByMdno(Long mdno);
 
+    // LLM 캐시 참조 데이터 변경 여부 판단용
+    @Query("SELECT MAX(m.mdno) FROM MedicineEntity m")
+    Long findMaxMdno();
+
+    // 약품명 인덱스 갱신 여부 판단용: 건수:최대 mdno:(mdno, 이름) 체크섬 → 추가/삭제뿐 아니라 이름 변경도 감지
+    @Query(value = "SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(mdno), 0), ':', " +
+            "COALESCE(SUM(CRC32(CONCAT(mdno, ':', name))), 0)) FROM medicine_table",
+            nativeQuery = true)
+    String findNameSignature();
+
     // 퀴즈 오답용
     // DB의 'classification' 중 :excludeList에 없는 것을 5개 랜덤 추출
     @Query(value = "SELECT DISTINCT classification FROM medicine_table " +
@@ -0,0 +1,29 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.NotificationOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntity, Long> {
+
+    // 전송할 알림을 잠그고 가져옴 (트랜잭션 안에서만 호출, 가져간 쪽이 IN_FLIGHT로 바꾸고 바로 커밋)
+    // 다른 디스패처가 잠근 행은 건너뛰므로 여러 스레드/인스턴스가 같은 행을 보내지 않음
+    // 임대 시각(available_at)이 지난 IN_FLIGHT = 전송 후 결과를 기록하지 못한 행 → 다시 가져감 (최소 1회 전달)
+    @Query(value = "SELECT * FROM notification_outbox_table " +
+            "WHERE status IN ('PENDING', 'IN_FLIGHT') AND available_at <= :now " +
+            "ORDER BY nono LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutboxEntity> lockPending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 보관 기간이 지난 DELIVERED / FAILED 정리
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntity n WHERE n.status IN ('DELIVERED', 'FAILED') AND n.createdAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -2,6 +2,8 @@ package com.synergy.bokja.repository;
 
 import com.synergy.bokja.entity.ReportEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +15,18 @@ public interface ReportRepository extends JpaRepository<ReportEntity, Long> {
 
     // 리포트 단건 상세 조회
     Optional<ReportEntity> findByRno(Long rno);
+
+    // [리포트 목록] 사용자의 모든 리포트 + 복약 정보 + 주기를 한 번에 (리포트별 추가 조회 없음)
+    @Query("SELECT r FROM ReportEntity r " +
+            "JOIN FETCH r.userMedicine um JOIN FETCH um.user u LEFT JOIN FETCH um.alarmComb " +
+            "JOIN FETCH r.cycle " +
+            "WHERE u.uno = :uno ORDER BY r.rno")
+    List<ReportEntity> findAllWithCycleByUno(@Param("uno") Long uno);
+
+    // [리포트 요약/상세] 리포트 + 복약 정보(사용자, 알림 조합) + 주기를 한 번에
+    @Query("SELECT r FROM ReportEntity r " +
+            "JOIN FETCH r.userMedicine um JOIN FETCH um.user LEFT JOIN FETCH um.alarmComb " +
+            "JOIN FETCH r.cycle " +
+            "WHERE r.rno = :rno")
+    Optional<ReportEntity> findWithCycleByRno(@Param("rno") Long rno);
 }
@@ -0,0 +1,45 @@
+package com.synergy.bokja.repository;
+
+import com.synergy.bokja.entity.UploadIdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface UploadIdempotencyKeyRepository extends JpaRepository<UploadIdempotencyKeyEntity, Long> {
+
+    @Query("SELECT k.jobId FROM UploadIdempotencyKeyEntity k " +
+            "WHERE k.uno = :uno AND k.idempotencyKey = :key AND k.createdAt > :since")
+    Optional<String> findJobId(@Param("uno") Long uno, @Param("key") String key, @Param("since") LocalDateTime since);
+
+    // 키를 작업에 연결. 이미 있으면 window가 지난 경우에만 새 작업으로 바꿈 (아니면 먼저 연결한 작업 유지)
+    // ON DUPLICATE KEY UPDATE는 왼쪽부터 적용되므로 created_at 비교는 job_id보다 뒤에 바꿈
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO upload_idempotency_key_table (uno, idempotency_key, job_id, created_at) " +
+            "VALUES (:uno, :key, :jobId, :now) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "job_id = IF(created_at <= :since, VALUES(job_id), job_id), " +
+            "created_at = IF(created_at <= :since, VALUES(created_at), created_at)",
+            nativeQuery = true)
+    int claim(@Param("uno") Long uno,
+              @Param("key") String key,
+              @Param("jobId") String jobId,
+              @Param("now") LocalDateTime now,
+              @Param("since") LocalDateTime since);
+
+    // 작업을 만들지 못했을 때 연결 해제 (같은 키 재요청이 새 작업을 만들 수 있게)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadIdempotencyKeyEntity k WHERE k.uno = :uno AND k.idempotencyKey = :key AND k.jobId = :jobId")
+    int release(@Param("uno") Long uno, @Param("key") String key, @Param("jobId") String jobId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadIdempotencyKeyEntity k WHERE k.createdAt <= :since")
+    int deleteExpired(@Param("since") LocalDateTime since);
+}
@@ -2,9 +2,15 @@ package com.synergy.bokja.repository;
 
 import com.synergy.bokja.entity.UserMedicineItemEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
 public interface UserMedicineItemRepository extends JpaRepository<UserMedicineItemEntity, Long> {
 
     List<UserMedicineItemEntity> findAllByUserMedicine_Umno(Long umno);
+
+    // [리포트 상세] 처방 약품 + 약품 정보를 한 번에 (약품별 추가 조회 없음)
+    @Query("SELECT i FROM UserMedicineItemEntity i JOIN FETCH i.medicine WHERE i.userMedicine.umno = :umno")
+    List<UserMedicineItemEntity> findAllWithMedicineByUmno(@Param("umno") Long umno);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.synergy.bokja.repository;
 
 import com.synergy.bokja.entity.UserMedicineEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -9,4 +10,9 @@ public interface UserMedicineRepository extends JpaRepository<UserMedicineEntity
     UserMedicineEntity findByUmno(Long umno);
     List<UserMedicineEntity> findAllByUser_Uno(Long uno);
     UserMedicineEntity findByUmnoAndUser_Uno(Long umno, Long uno);
+    boolean existsByUser_Uno(Long uno);
+
+    // 일별 복약 집계 백필 구간 계산용
+    @Query("SELECT MAX(um.umno) FROM UserMedicineEntity um")
+    Long findMaxUmno();
 }
\ No newline at end of file
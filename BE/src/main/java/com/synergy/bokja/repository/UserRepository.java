@@ -1,7 +1,13 @@
 package com.synergy.bokja.repository;
 
 import com.synergy.bokja.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -11,4 +17,21 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     UserEntity findByUno(Long uno);
     UserEntity findByNameAndBirthAndPhone(String name, LocalDate birth, String phone);
     List<UserEntity> findAllByIsActive(Boolean isActive);
+
+    // 배치용 keyset 페이징: 파티션(uno 구간) 안에서 afterUno 다음부터 lastUno까지 활성 사용자 uno만 오름차순으로 (PK 인덱스 범위 조회)
+    @Query("SELECT u.uno FROM UserEntity u WHERE u.isActive = true AND u.uno > :afterUno AND u.uno <= :lastUno ORDER BY u.uno")
+    List<Long> findActiveUnosBetween(@Param("afterUno") Long afterUno, @Param("lastUno") Long lastUno, Pageable pageable);
+
+    // 배치 파티션 개수 계산용
+    @Query("SELECT MAX(u.uno) FROM UserEntity u WHERE u.isActive = true")
+    Long findMaxActiveUno();
+
+    // FCM이 UNREGISTERED로 응답한 토큰 삭제 (그 사이 새 토큰으로 바뀌었으면 그대로 둠)
+    // outbox 전송 트랜잭션과 분리 (실패해도 전송 결과 저장이 롤백되지 않도록)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.fcmToken = NULL WHERE u.uno = :uno AND u.fcmToken = :token")
+    int clearFcmToken(@Param("uno") Long uno, @Param("token") String token);
+
+    List<UserEntity> findAllByUnoIn(List<Long> unos);
 }
@@ -0,0 +1,163 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.entity.CombinationEntity;
+import com.synergy.bokja.entity.MedicineEntity;
+import com.synergy.bokja.repository.CombinationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 병용섭취 주의사항(combination_table) 메모리 인덱스
+ * - 약품명 / 약효분류 / 성분 토큰별 HashMap으로 보관 → 약품별 주의사항 조회가 DB 왕복 없이 해시 조회 몇 번
+ * - 약품(mdno)별 성분 토큰 집합도 한 번만 계산해 재사용
+ * - 참조 데이터라 거의 바뀌지 않음: 주기적으로 (건수, 최대 cbno)를 확인해 바뀌었을 때만 새로 만들어 통째로 교체
+ * - 보관하는 엔터티는 영속성 컨텍스트 밖(detached) 객체이므로 읽기 전용으로만 사용
+ */
+@Component
+@RequiredArgsConstructor
+public class CombinationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CombinationIndex.class);
+
+    private final CombinationRepository combinationRepository;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reloadIfChanged();
+    }
+
+    /** combination_table 변경 여부를 확인하고 바뀌었으면 인덱스를 다시 구축 */
+    @Scheduled(fixedDelayString = "${combination.index.refresh-interval-ms:300000}",
+            initialDelayString = "${combination.index.refresh-interval-ms:300000}")
+    public void reloadIfChanged() {
+        try {
+            String signature = combinationRepository.count() + ":" + combinationRepository.findMaxCbno();
+            Snapshot current = snapshot;
+            if (current != null && signature.equals(current.signature)) {
+                return;
+            }
+            snapshot = Snapshot.build(combinationRepository.findAll(), signature);
+            log.info("[CombinationIndex] 병용주의 인덱스 구축 완료 (주의사항 {}건)", snapshot.size);
+        } catch (Exception e) {
+            log.warn("[CombinationIndex] 병용주의 인덱스 구축 실패: {}", e.getMessage());
+        }
+    }
+
+    /** 약품 하나에 해당하는 주의사항 (약품명 / 약효분류 / 성분 중 하나라도 일치) */
+    public List<CombinationEntity> findFor(MedicineEntity med) {
+        if (med == null) return List.of();
+        Set<CombinationEntity> result = new LinkedHashSet<>();
+        collect(current(), med, result);
+        return new ArrayList<>(result);
+    }
+
+    /** 처방 약품 전체에 해당하는 주의사항 (중복 제거) */
+    public List<CombinationEntity> findFor(Collection<MedicineEntity> meds) {
+        Snapshot s = current();
+        Set<CombinationEntity> result = new LinkedHashSet<>();
+        for (MedicineEntity med : meds) {
+            if (med != null) collect(s, med, result);
+        }
+        return new ArrayList<>(result);
+    }
+
+    private void collect(Snapshot s, MedicineEntity med, Set<CombinationEntity> result) {
+        result.addAll(s.byName.getOrDefault(key(med.getName()), List.of()));
+        result.addAll(s.byClassification.getOrDefault(key(med.getClassification()), List.of()));
+        for (String token : s.tokensOf(med)) {
+            result.addAll(s.byIngredient.getOrDefault(token, List.of()));
+        }
+    }
+
+    // 기동 직후(ApplicationReadyEvent 이전) 요청이 들어와도 비어 있지 않도록 즉시 구축
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) reloadIfChanged();
+                s = snapshot;
+            }
+        }
+        return s != null ? s : Snapshot.EMPTY;
+    }
+
+    // 비교용 키: 앞뒤 공백 제거 + 소문자 (MySQL 기본 collation의 IN 비교와 동일하게)
+    private static String key(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // "성분A, 성분B" → {"성분a", "성분b"}
+    private static Set<String> tokenize(String ingredient) {
+        if (ingredient == null) return Set.of();
+        Set<String> tokens = new HashSet<>();
+        for (String part : ingredient.split(",")) {
+            String token = key(part);
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), 0, null);
+
+        final Map<String, List<CombinationEntity>> byName;
+        final Map<String, List<CombinationEntity>> byClassification;
+        final Map<String, List<CombinationEntity>> byIngredient;
+        final int size;
+        final String signature;
+
+        // mdno → (성분 문자열, 토큰 집합). 성분 문자열이 바뀐 약품은 다시 계산
+        final Map<Long, Map.Entry<String, Set<String>>> tokensByMdno = new ConcurrentHashMap<>();
+
+        Snapshot(Map<String, List<CombinationEntity>> byName,
+                 Map<String, List<CombinationEntity>> byClassification,
+                 Map<String, List<CombinationEntity>> byIngredient,
+                 int size, String signature) {
+            this.byName = byName;
+            this.byClassification = byClassification;
+            this.byIngredient = byIngredient;
+            this.size = size;
+            this.signature = signature;
+        }
+
+        Set<String> tokensOf(MedicineEntity med) {
+            String ingredient = med.getIngredient();
+            if (med.getMdno() == null) return tokenize(ingredient);
+            Map.Entry<String, Set<String>> cached = tokensByMdno.get(med.getMdno());
+            if (cached == null || !Objects.equals(cached.getKey(), ingredient)) {
+                cached = new AbstractMap.SimpleImmutableEntry<>(ingredient, tokenize(ingredient));
+                tokensByMdno.put(med.getMdno(), cached);
+            }
+            return cached.getValue();
+        }
+
+        static Snapshot build(List<CombinationEntity> combinations, String signature) {
+            Map<String, List<CombinationEntity>> byName = new HashMap<>();
+            Map<String, List<CombinationEntity>> byClassification = new HashMap<>();
+            Map<String, List<CombinationEntity>> byIngredient = new HashMap<>();
+
+            for (CombinationEntity c : combinations) {
+                put(byName, c.getName(), c);
+                put(byClassification, c.getClassification(), c);
+                put(byIngredient, c.getIngredient(), c);
+            }
+            return new Snapshot(byName, byClassification, byIngredient, combinations.size(), signature);
+        }
+
+        // 빈 값은 색인하지 않음 (null 필드끼리 일치하는 것으로 보지 않도록)
+        private static void put(Map<String, List<CombinationEntity>> map, String value, CombinationEntity c) {
+            String k = key(value);
+            if (!k.isEmpty()) map.computeIfAbsent(k, x -> new ArrayList<>()).add(c);
+        }
+    }
+}
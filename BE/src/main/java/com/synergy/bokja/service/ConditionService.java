@@ -6,14 +6,16 @@ import com.synergy.bokja.dto.ConditionRecordItemDTO;
 import com.synergy.bokja.entity.ConditionEntity;
 import com.synergy.bokja.entity.EffectEntity;
 import com.synergy.bokja.entity.UserEntity;
-import com.synergy.bokja.repository.ConditionRepository;
+import com.synergy.bokja.repository.BatchInsertRepository;
 import com.synergy.bokja.repository.EffectRepository;
 import com.synergy.bokja.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,10 +23,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ConditionService {
 
-    private final ConditionRepository conditionRepository;
     private final EffectRepository effectRepository;
     private final UserRepository userRepository;
+    private final BatchInsertRepository batchInsertRepository;
 
+    @Transactional
     public ConditionCreateResponseDTO createCondition(Long uno, ConditionCreateRequestDTO request) {
         Timestamp now = Timestamp.from(Instant.now());
 
@@ -33,6 +36,7 @@ public class ConditionService {
             throw new IllegalArgumentException("유효하지 않은 uno: " + uno);
         }
 
+        List<ConditionEntity> conditions = new ArrayList<>();
         List<ConditionRecordItemDTO> effects = request.getEffects().stream().map(efno -> {
             EffectEntity effect = effectRepository.findByEfno(efno);
             if (effect == null) throw new IllegalArgumentException("유효하지 않은 efno: " + efno);
@@ -42,11 +46,14 @@ public class ConditionService {
                     .effect(effect)
                     .time(now.toLocalDateTime())
                     .build();
-            conditionRepository.save(condition);
+            conditions.add(condition);
 
             return new ConditionRecordItemDTO(effect.getEfno(), effect.getName());
         }).collect(Collectors.toList());
 
+        // 선택한 증상들을 한 번에 저장 (JDBC batch)
+        batchInsertRepository.insertConditions(conditions);
+
         return new ConditionCreateResponseDTO(effects);
     }
 }
@@ -0,0 +1,68 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.entity.EffectEntity;
+import com.synergy.bokja.repository.EffectRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 부작용(effect_table) 이름 사전 - efno → name
+ * - 리포트의 주차별 부작용 통계에서 이름을 DB 왕복 없이 조회
+ * - 참조 데이터라 거의 바뀌지 않음: 주기적으로 (건수, 최대 efno)를 확인해 바뀌었을 때만 다시 읽음
+ * - 이미지(TEXT)는 보관하지 않음
+ */
+@Component
+@RequiredArgsConstructor
+public class EffectDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(EffectDictionary.class);
+
+    private final EffectRepository effectRepository;
+
+    private volatile Map<Long, String> names;
+    private volatile String signature;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reloadIfChanged();
+    }
+
+    /** effect_table 변경 여부를 확인하고 바뀌었으면 다시 읽음 */
+    @Scheduled(fixedDelayString = "${effect.dictionary.refresh-interval-ms:300000}",
+            initialDelayString = "${effect.dictionary.refresh-interval-ms:300000}")
+    public synchronized void reloadIfChanged() {
+        try {
+            String current = effectRepository.count() + ":" + effectRepository.findMaxEfno();
+            if (names != null && current.equals(signature)) {
+                return;
+            }
+            Map<Long, String> loaded = new HashMap<>();
+            for (EffectEntity effect : effectRepository.findAll()) {
+                loaded.put(effect.getEfno(), effect.getName());
+            }
+            names = loaded;
+            signature = current;
+            log.info("[EffectDictionary] 부작용 사전 구축 완료 ({}건)", loaded.size());
+        } catch (Exception e) {
+            log.warn("[EffectDictionary] 부작용 사전 구축 실패: {}", e.getMessage());
+        }
+    }
+
+    /** 부작용 이름 (사전에 없으면 한 번 다시 읽어 보고, 그래도 없으면 null) */
+    public String nameOf(Long efno) {
+        Map<Long, String> current = names;
+        if (current == null || !current.containsKey(efno)) {
+            reloadIfChanged();
+            current = names;
+        }
+        return current != null ? current.get(efno) : null;
+    }
+}
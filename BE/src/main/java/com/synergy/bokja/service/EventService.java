@@ -1,6 +1,7 @@
 package com.synergy.bokja.service;
 
 import com.synergy.bokja.dto.*;
+import com.synergy.bokja.dto.fcm.PushMessage;
 import com.synergy.bokja.entity.*;
 import com.synergy.bokja.repository.*;
 
@@ -11,7 +12,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
-import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,8 +28,12 @@ public class EventService {
     private final QuizOptionRepository quizOptionRepository;
     private final CycleRepository cycleRepository;
     private final TtsService ttsService;
-    private final UserRepository userRepository;
+    private final BatchRunRepository batchRunRepository;
+    private final DailyAdherenceRepository dailyAdherenceRepository;
+    private final BatchInsertRepository batchInsertRepository;
     private final FcmService fcmService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final UserRepository userRepository;
 
     public AIScriptResponseDTO getAIScript(Long umno) {
         DescriptionEntity description = descriptionRepository.findByUserMedicine_UmnoAndEventName_Enno(umno, 3l); // AI call -> enno : 3
@@ -43,8 +47,8 @@ public class EventService {
             throw new IllegalArgumentException("description이 비어있습니다.");
         }
 
-        // TTS 생성 (Base64 문자열 반환)
-        String audioUrl = ttsService.generateTtsFromText(descriptionText);
+        // TTS 생성 (오디오 URL 반환, 음성은 GET /audio/{hash}로 받음)
+        String audioUrl = ttsService.generateTtsUrl(descriptionText);
 
         AIScriptResponseDTO dto = new AIScriptResponseDTO(
                 description.getUserMedicine().getUmno(),
@@ -61,9 +65,22 @@ public class EventService {
         EventEntity event = eventRepository.findById(eno)
                 .orElseThrow(() -> new IllegalArgumentException("해당 이벤트를 찾을 수 없습니다. eno: " + eno));
 
+        // 이미 완료된 이벤트를 다시 누르면 아무것도 바꾸지 않음
+        // (updated_at = 처음 완료 시각을 유지해야 일별 집계 재계산(recompute)과 결과가 같음)
+        if (event.getStatus() == EventStatus.완료) {
+            return new updateEventStatusResponseDTO(event.getEno());
+        }
+
         event.setStatus(EventStatus.완료);
         event.setUpdatedAt(LocalDateTime.now());
 
+        // 일별 복약 집계: 이벤트 날짜 당일에 완료된 경우만 완료 건수 +1
+        LocalDate eventDate = event.getEventDate() != null ? event.getEventDate() : event.getCreatedAt().toLocalDate();
+        if (event.getUserMedicine() != null
+                && event.getUpdatedAt().toLocalDate().equals(eventDate)) {
+            dailyAdherenceRepository.addCompleted(event.getUserMedicine().getUmno(), eventDate, event.getUpdatedAt());
+        }
+
         try {
             Long umnoToFind = event.getUserMedicine().getUmno();
 
@@ -81,43 +98,139 @@ public class EventService {
     }
 
     /**
-     * [배치 작업] 1. 매일 00시에 호출될 메인 메서드
+     * [배치 작업] 1. 사용자 청크 하나의 "오늘 날짜" 이벤트 생성 (DailyEventBatchJob이 청크마다 호출)
+     * - 청크 전체가 하나의 트랜잭션: 커밋되면 영속성 컨텍스트도 함께 비워짐
+     * - 같은 트랜잭션에서 사용자별 실행 기록(batch_run_table)을 남김 → 재실행 시 이미 끝난 사용자는 건너뜀
+     * - 한 명이라도 실패하면 청크 전체가 롤백되고, 호출 측에서 사용자 1명 단위로 다시 시도
+     * - FCM 알림은 여기서 보내지 않고 같은 트랜잭션에서 outbox에만 저장 (전송은 NotificationOutboxService)
      */
     @Transactional
-    public void createAndSendDailyEvents() {
-        List<UserEntity> activeUsers = userRepository.findAllByIsActive(true);
+    public DailyEventChunkResult createDailyEventsForChunk(LocalDate runDate, List<Long> chunkUnos) {
+        EventNameEntity alarmEventName = eventNameRepository.findById(1L)
+                .orElseThrow(() -> new RuntimeException("enno=1인 '알림' 이벤트명을 찾을 수 없습니다.")); // (배치 실패 처리)
+
+        List<Long> unos = pendingUnos(runDate, chunkUnos);
+        if (unos.isEmpty()) return new DailyEventChunkResult(0, 0);
+
+        Map<Long, String> tokens = fcmTokensOf(unos);
+        List<PushMessage> pushMessages = new ArrayList<>();
+
+        int eventCount = 0;
+        for (Long uno : unos) {
+            // 1. 유저의 "오늘 날짜" 이벤트 생성
+            List<EventEntity> newEvents = generateEventsForUser(uno, runDate, alarmEventName);
 
-        for (UserEntity user : activeUsers) {
-            try {
-                // 1. 유저의 "오늘 날짜" 이벤트 생성
-                List<EventEntity> newEvents = generateEventsForUser(user);
+            if (newEvents.isEmpty()) continue;
 
-                if (newEvents.isEmpty()) continue;
+            // 2. DB에 일괄 저장 (JDBC batch) + 일별 복약 집계의 발행 건수 증가
+            batchInsertRepository.insertEvents(newEvents);
+            eventCount += newEvents.size();
+            addIssuedAdherence(runDate, newEvents);
 
-                // 2. DB에 일괄 저장
-                eventRepository.saveAll(newEvents);
+            // 3. 저장한 이벤트로 DTO 생성
+            EventItemResponseDTO fcmPayload = buildEventResponseDTO(uno, newEvents);
 
-                // 3. 저장한 이벤트로 DTO 생성
-                EventItemResponseDTO fcmPayload = buildEventResponseDTO(user.getUno(), newEvents);
+            // 4. FCM 메시지 (outbox에 저장 → 커밋 후 디스패처가 전송)
+            PushMessage message = fcmService.buildEventsMessage(uno, tokens.get(uno), fcmPayload);
+            if (message != null) pushMessages.add(message);
+        }
+
+        notificationOutboxService.append(pushMessages);
+        saveBatchRuns(runDate, unos);
+        return new DailyEventChunkResult(eventCount, pushMessages.size());
+    }
 
-                // 4. FCM으로 전송
-//                 fcmService.sendEvents(user.getFcmToken(), fcmPayload);
+    /**
+     * [배치 작업] 1-1. createDailyEventsForChunk의 SQL 버전 (event.batch.mode=sql)
+     * - 사용자별 Java 반복 대신 청크 전체를 INSERT ... SELECT 2번 + 그룹 UPDATE 1번으로 처리
+     *   안내 문구(description_table) → 이벤트(event_table, 퀴즈는 복약 정보별 랜덤) → cur_cycle 증가
+     * - 생성 결과는 Java 버전과 동일, 실패 시 호출 측에서 Java 버전으로 사용자별 재시도
+     * - 일별 복약 집계(daily_adherence_table)의 발행 건수도 같은 트랜잭션에서 복약 정보별 그룹 INSERT 1번으로 증가
+     * - created_at을 이번 호출의 시각(초 단위)으로 통일해 방금 만든 행끼리만 연결
+     * - FCM 메시지는 방금 만든 이벤트를 다시 읽어서 생성해 outbox에 저장 (퀴즈 보기는 청크 전체를 한 번에 조회)
+     * - 이미 (atno, event_date) 이벤트가 있는 알림 시간은 INSERT가 건너뜀 (실행 기록 없이 이벤트만 남은 경우 대비)
+     */
+    @Transactional
+    public DailyEventChunkResult createDailyEventsForChunkSql(LocalDate runDate, List<Long> chunkUnos) {
+        eventNameRepository.findById(1L)
+                .orElseThrow(() -> new RuntimeException("enno=1인 '알림' 이벤트명을 찾을 수 없습니다.")); // (배치 실패 처리)
+
+        List<Long> unos = pendingUnos(runDate, chunkUnos);
+        if (unos.isEmpty()) return new DailyEventChunkResult(0, 0);
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        descriptionRepository.insertDailyAlarmDescriptions(unos, runDate, now);
+        int eventCount = eventRepository.insertDailyAlarmEvents(unos, runDate, now);
+        if (eventCount > 0) {
+            cycleRepository.incrementCurCycleForDailyEvents(unos, runDate, now);
+            dailyAdherenceRepository.addIssuedForDailyEvents(unos, runDate, now);
+        }
 
-            } catch (Exception e) {
-                System.err.println("Error generating events for user " + user.getUno() + ": " + e.getMessage());
+        List<PushMessage> pushMessages = new ArrayList<>();
+        Map<Long, String> tokens = fcmTokensOf(unos);
+        if (eventCount > 0 && !tokens.isEmpty()) {
+            List<EventEntity> created = eventRepository.findAllByUserMedicine_User_UnoInAndEventName_EnnoAndCreatedAt(
+                    new ArrayList<>(tokens.keySet()), 1L, now);
+            Map<Long, List<QuizOptionEntity>> optionsMap = quizOptionsOf(created);
+
+            Map<Long, List<EventEntity>> eventsByUno = created.stream()
+                    .collect(Collectors.groupingBy(e -> e.getUserMedicine().getUser().getUno()));
+            eventsByUno.forEach((uno, events) -> {
+                PushMessage message = fcmService.buildEventsMessage(uno, tokens.get(uno),
+                        buildEventResponseDTO(uno, events, optionsMap));
+                if (message != null) pushMessages.add(message);
+            });
+        }
+
+        notificationOutboxService.append(pushMessages);
+        saveBatchRuns(runDate, unos);
+        return new DailyEventChunkResult(eventCount, pushMessages.size());
+    }
+
+    // uno → FCM 토큰 (토큰이 없는 사용자는 제외)
+    private Map<Long, String> fcmTokensOf(List<Long> unos) {
+        Map<Long, String> tokens = new HashMap<>();
+        for (UserEntity user : userRepository.findAllByUnoIn(unos)) {
+            if (user.getFcmToken() != null && !user.getFcmToken().isBlank()) {
+                tokens.put(user.getUno(), user.getFcmToken());
             }
         }
+        return tokens;
+    }
+
+    // 일별 복약 집계(daily_adherence_table): 복약 정보별 발행 건수 증가
+    private void addIssuedAdherence(LocalDate runDate, List<EventEntity> events) {
+        LocalDateTime now = LocalDateTime.now();
+        events.stream()
+                .collect(Collectors.groupingBy(e -> e.getUserMedicine().getUmno(), Collectors.counting()))
+                .forEach((umno, count) -> dailyAdherenceRepository.addIssued(umno, runDate, count.intValue(), now));
+    }
+
+    // 청크 중 runDate 실행 기록이 없는 사용자만 (다른 실행이 그 사이 먼저 처리한 사용자 제외)
+    private List<Long> pendingUnos(LocalDate runDate, List<Long> unos) {
+        Set<Long> done = new HashSet<>(batchRunRepository.findDoneUnos(runDate, unos));
+        if (done.isEmpty()) return unos;
+        return unos.stream().filter(uno -> !done.contains(uno)).toList();
+    }
+
+    // 이벤트와 같은 트랜잭션에서 사용자별 실행 기록 저장 → 재실행 시 건너뜀
+    // 동시에 같은 사용자를 처리한 다른 실행이 먼저 커밋했으면 (run_date, uno) 유니크 위반으로 이 트랜잭션이 롤백됨
+    private void saveBatchRuns(LocalDate runDate, List<Long> unos) {
+        LocalDateTime now = LocalDateTime.now();
+        batchInsertRepository.insertBatchRuns(unos.stream()
+                .map(uno -> BatchRunEntity.builder().runDate(runDate).uno(uno).createdAt(now).build())
+                .toList());
     }
 
     /**
      * [배치 작업] 2. 퀴즈를 랜덤 선택하여 EventEntity 리스트를 생성 (DB 저장 전)
      */
-    private List<EventEntity> generateEventsForUser(UserEntity user) {
-        LocalDate today = LocalDate.now();
+    private List<EventEntity> generateEventsForUser(Long uno, LocalDate today, EventNameEntity alarmEventName) {
         List<EventEntity> newEvents = new ArrayList<>();
 
         // --- (N+1 방지 로직 1) 오늘 먹을 약 필터링 ---
-        List<UserMedicineEntity> allMeds = userMedicineRepository.findAllByUser_Uno(user.getUno());
+        List<UserMedicineEntity> allMeds = userMedicineRepository.findAllByUser_Uno(uno);
         List<Long> umnoList = allMeds.stream().map(UserMedicineEntity::getUmno).collect(Collectors.toList());
         if (umnoList.isEmpty()) return newEvents; // 복약 정보 없음
 
@@ -143,17 +256,32 @@ public class EventService {
 
         List<AlarmTimeEntity> alarmTimes = alarmTimeRepository.findAllByUserMedicine_UmnoIn(activeUmnoList);
 
-        EventNameEntity alarmEventName = eventNameRepository.findById(1L)
-                .orElseThrow(() -> new RuntimeException("enno=1인 '알림' 이벤트명을 찾을 수 없습니다.")); // (배치 실패 처리)
+        // 오늘 이벤트가 이미 있는 알림 시간은 제외 (atno + event_date 유니크)
+        if (!alarmTimes.isEmpty()) {
+            Set<Long> issued = new HashSet<>(eventRepository.findAtnosWithEventOn(
+                    alarmTimes.stream().map(AlarmTimeEntity::getAtno).toList(), today));
+            if (!issued.isEmpty()) {
+                alarmTimes = alarmTimes.stream().filter(a -> !issued.contains(a.getAtno())).toList();
+            }
+        }
 
         Map<Long, List<QuizEntity>> quizMap = quizRepository.findAllByUserMedicine_UmnoIn(activeUmnoList)
                 .stream()
                 .collect(Collectors.groupingBy(q -> q.getUserMedicine().getUmno()));
 
+        if (alarmTimes.isEmpty()) return newEvents; // 알림 시간 없음
+
+        // 발행할 알림 시간이 남은 복약 정보만 안내 문구 생성 (모두 이미 발행됐으면 문구만 남지 않도록)
+        Set<Long> umnosToIssue = alarmTimes.stream()
+                .map(a -> a.getUserMedicine().getUmno())
+                .collect(Collectors.toSet());
+
         Random random = new Random();
         Map<Long, DescriptionEntity> descriptionMap = new HashMap<>();
+        List<DescriptionEntity> newDescriptions = new ArrayList<>();
 
         for (UserMedicineEntity med : activeMedsToday) {
+            if (!umnosToIssue.contains(med.getUmno())) continue;
 
             // 동적 설명 생성
             String category = med.getCategory();
@@ -165,12 +293,15 @@ public class EventService {
                     .description(dynamicDescription)
                     .createdAt(LocalDateTime.now())
                     .build();
-            DescriptionEntity savedDescription = descriptionRepository.save(newDescription);
+            newDescriptions.add(newDescription);
 
-            // Map에 저장 (Key: umno, Value: 저장된 엔티티)
-            descriptionMap.put(med.getUmno(), savedDescription);
+            // Map에 저장 (Key: umno, Value: 엔티티, dno는 아래 일괄 저장 후 채워짐)
+            descriptionMap.put(med.getUmno(), newDescription);
         }
 
+        // 안내 문구 일괄 저장 (JDBC batch) → 이벤트가 참조할 dno 확보
+        batchInsertRepository.insertDescriptions(newDescriptions);
+
         Map<Long, Integer> eventCountPerUmno = new HashMap<>();
 
         for (AlarmTimeEntity alarm : alarmTimes) {
@@ -190,6 +321,7 @@ public class EventService {
                     .description(descriptionMap.get(currentUmno))
                     .quiz(selectedQuiz)
                     .status(EventStatus.발행)
+                    .eventDate(today)
                     .createdAt(LocalDateTime.now())
                     .build();
 
@@ -217,17 +349,18 @@ public class EventService {
      */
     public EventItemResponseDTO getEventList(Long uno) {
 
-        // 1. 오늘 날짜의 범위 계산 (00:00:00 ~ 23:59:59.999999999)
+        // 1. 오늘 날짜의 범위 계산 (event_date가 없는 예전 이벤트는 생성 시각이 오늘 00:00 ~ 내일 00:00)
         LocalDate today = LocalDate.now();
         LocalDateTime startOfDay = today.atStartOfDay();
-        LocalDateTime endOfDay = today.atTime(LocalTime.MAX);
+        LocalDateTime startOfNextDay = today.plusDays(1).atStartOfDay();
 
-        // 2. (수정) 날짜 범위 조건을 포함하여 조회
-        List<EventEntity> events = eventRepository.findAllByUserMedicine_User_UnoAndStatusAndCreatedAtBetween(
+        // 2. 이벤트 날짜(event_date)가 오늘인 이벤트 조회 (지난 날짜를 오늘 재실행해 만든 이벤트는 제외)
+        List<EventEntity> events = eventRepository.findAllByUnoAndStatusOn(
                 uno,
                 EventStatus.발행,
+                today,
                 startOfDay,
-                endOfDay
+                startOfNextDay
         );
 
         if (events.isEmpty()) {
@@ -243,22 +376,31 @@ public class EventService {
      */
     private EventItemResponseDTO buildEventResponseDTO(Long uno, List<EventEntity> events) {
         // (N+1 방지) 퀴즈 옵션 미리 조회 (기존과 동일)
+        return buildEventResponseDTO(uno, events, quizOptionsOf(events));
+    }
+
+    // 이벤트들에 걸린 퀴즈의 보기를 한 번에 조회 (qno → 보기 목록)
+    private Map<Long, List<QuizOptionEntity>> quizOptionsOf(List<EventEntity> events) {
         List<Long> qnoList = events.stream()
                 .map(EventEntity::getQuiz)
                 .filter(Objects::nonNull)
                 .map(QuizEntity::getQno)
                 .distinct()
                 .collect(Collectors.toList());
+        if (qnoList.isEmpty()) return Map.of();
 
-        Map<Long, List<QuizOptionEntity>> optionsMap =
-                quizOptionRepository.findAllByQuiz_QnoIn(qnoList).stream()
-                        .collect(Collectors.groupingBy(opt -> opt.getQuiz().getQno()));
+        return quizOptionRepository.findAllByQuiz_QnoIn(qnoList).stream()
+                .collect(Collectors.groupingBy(opt -> opt.getQuiz().getQno()));
+    }
 
+    private EventItemResponseDTO buildEventResponseDTO(Long uno, List<EventEntity> events,
+                                                       Map<Long, List<QuizOptionEntity>> optionsMap) {
         List<EventItemDTO> eventListDTOs = events.stream().map(event -> {
 
             UserMedicineEntity med = event.getUserMedicine();
-            // (Event -> AlarmTime -> Time -> LocalTime)
-            LocalDateTime time = event.getCreatedAt().toLocalDate().atTime(event.getAlarmTime().getTime().getTime());
+            // (Event -> AlarmTime -> Time -> LocalTime), 날짜는 이벤트 날짜 (없으면 생성일)
+            LocalDate eventDate = event.getEventDate() != null ? event.getEventDate() : event.getCreatedAt().toLocalDate();
+            LocalDateTime time = eventDate.atTime(event.getAlarmTime().getTime().getTime());
 
             QuizEntity selectedQuiz = event.getQuiz();
             String question = null;
@@ -1,52 +1,123 @@
 package com.synergy.bokja.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.Message;
-import com.google.firebase.messaging.Notification;
 import com.synergy.bokja.dto.EventItemResponseDTO;
+import com.synergy.bokja.dto.fcm.PushMessage;
+import com.synergy.bokja.dto.fcm.PushSendResult;
+import com.synergy.bokja.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+/**
+ * 푸시(FCM) 메시지 생성 / 전송
+ * - 알림은 바로 보내지 않고 NotificationOutboxService(outbox)에 저장 → 디스패처가 sendBatch로 전송
+ * - 실제 전송은 PushMessagingClient (fcm.client=firebase / stub)
+ * - UNREGISTERED 토큰은 user_table의 fcm_token을 비움 (다음부터 보내지 않도록)
+ */
 @Service
 @RequiredArgsConstructor
 public class FcmService {
 
-    private final FirebaseMessaging firebaseMessaging;
-    private final ObjectMapper objectMapper; // 3. DTO -> JSON 문자열 변환용
+    private static final Logger log = LoggerFactory.getLogger(FcmService.class);
 
-    public void sendEvents(String userFcmToken, EventItemResponseDTO fcmPayload) {
+    private final PushMessagingClient pushMessagingClient;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper; // 3. DTO -> JSON 문자열 변환용
 
-        // FCM 'data' 페이로드 만들기
+    /**
+     * 오늘의 이벤트 알림 메시지 생성 (토큰이 없으면 null)
+     */
+    public PushMessage buildEventsMessage(Long uno, String userFcmToken, EventItemResponseDTO fcmPayload) {
+        if (userFcmToken == null || userFcmToken.isBlank()) {
+            return null;
+        }
         try {
+            // FCM 'data' 페이로드 만들기
             String payloadJson = objectMapper.writeValueAsString(fcmPayload);
 
             Map<String, String> dataPayload = new HashMap<>();
             dataPayload.put("type", "NEW_EVENTS");
             dataPayload.put("eventData", payloadJson);
 
-            // 5. 기본 알림 설정 (앱이 꺼져있을 때 보임)
-            Notification notification = Notification.builder()
-                    .setTitle("복약 알림 💊")
-                    .setBody("오늘의 복약 일정이 등록되었습니다!")
+            // 기본 알림 설정 (앱이 꺼져있을 때 보임)
+            return PushMessage.builder()
+                    .uno(uno)
+                    .token(userFcmToken)
+                    .title("복약 알림 💊")
+                    .body("오늘의 복약 일정이 등록되었습니다!")
+                    .data(dataPayload)
                     .build();
+        } catch (Exception e) {
+            log.warn("[FcmService] FCM 페이로드 생성 실패 (uno={}): {}", uno, e.getMessage());
+            return null;
+        }
+    }
 
-            // 6. 메시지 빌드
-            Message message = Message.builder()
-                    .setToken(userFcmToken)
-                    .setNotification(notification)
-                    .putAllData(dataPayload)
-                    .build();
+    /**
+     * 알림 시각(슬롯) 메시지 생성 - 해당 시각에 먹을 약 이벤트 목록(enos)을 함께 보냄
+     * (사용자 × 날짜 × 시각으로 dedupe 키 → 슬롯 등록을 재시도해도 outbox에 한 번만)
+     */
+    public PushMessage buildAlarmSlotMessage(Long uno, String userFcmToken, LocalDate date, LocalTime time, List<Long> enos) {
+        if (userFcmToken == null || userFcmToken.isBlank()) {
+            return null;
+        }
+        Map<String, String> dataPayload = new HashMap<>();
+        dataPayload.put("type", "ALARM_SLOT");
+        dataPayload.put("time", time.toString());
+        dataPayload.put("enos", enos.stream().map(String::valueOf).collect(Collectors.joining(",")));
 
-            // 7. 메시지 전송
-            String response = firebaseMessaging.send(message);
-            System.out.println("FCM 전송 성공: " + response);
+        return PushMessage.builder()
+                .uno(uno)
+                .token(userFcmToken)
+                .title("복약 알림 💊")
+                .body(time.getHour() + "시 약 먹을 시간이에요!")
+                .data(dataPayload)
+                .dedupeKey("ALARM_SLOT:" + uno + ":" + date + ":" + time)
+                .build();
+    }
 
+    /**
+     * 최대 500건(sendEach 한도)을 한 번 전송하고 입력 순서대로 결과 반환 (재시도는 호출 측에서)
+     * 요청 자체가 실패하면 전체를 TRANSIENT로 돌려줌
+     */
+    public List<PushSendResult> sendBatch(List<PushMessage> messages) {
+        List<PushSendResult> results;
+        try {
+            results = pushMessagingClient.sendEach(messages);
+        } catch (Exception e) {
+            log.warn("[FcmService] FCM 전송 요청 실패 ({}건): {}", messages.size(), e.getMessage());
+            return Collections.nCopies(messages.size(),
+                    new PushSendResult(PushSendResult.Status.TRANSIENT, e.getMessage()));
+        }
+
+        List<PushSendResult> normalized = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            PushSendResult result = i < results.size() ? results.get(i)
+                    : new PushSendResult(PushSendResult.Status.TRANSIENT, "missing response");
+            if (result.getStatus() == PushSendResult.Status.UNREGISTERED) {
+                clearToken(messages.get(i));
+            }
+            normalized.add(result);
+        }
+        return normalized;
+    }
+
+    private void clearToken(PushMessage message) {
+        try {
+            userRepository.clearFcmToken(message.getUno(), message.getToken());
         } catch (Exception e) {
-            System.err.println("FCM 전송 실패: " + e.getMessage());
+            log.warn("[FcmService] 해지된 FCM 토큰 삭제 실패 (uno={}): {}", message.getUno(), e.getMessage());
         }
     }
 }
@@ -0,0 +1,64 @@
+package com.synergy.bokja.service;
+
+import com.google.firebase.messaging.*;
+import com.synergy.bokja.dto.fcm.PushMessage;
+import com.synergy.bokja.dto.fcm.PushSendResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "fcm.client", havingValue = "firebase", matchIfMissing = true)
+public class FirebasePushMessagingClient implements PushMessagingClient {
+
+    private final FirebaseMessaging firebaseMessaging;
+
+    @Override
+    public List<PushSendResult> sendEach(List<PushMessage> messages) {
+        List<Message> fcmMessages = messages.stream().map(FirebasePushMessagingClient::toMessage).toList();
+
+        try {
+            BatchResponse response = firebaseMessaging.sendEach(fcmMessages);
+            List<PushSendResult> results = new ArrayList<>();
+            for (SendResponse r : response.getResponses()) {
+                results.add(r.isSuccessful() ? PushSendResult.success() : toResult(r.getException()));
+            }
+            return results;
+        } catch (FirebaseMessagingException e) {
+            // 요청 자체가 실패 → 전체 메시지에 같은 결과
+            return Collections.nCopies(messages.size(), toResult(e));
+        }
+    }
+
+    private static Message toMessage(PushMessage m) {
+        return Message.builder()
+                .setToken(m.getToken())
+                .setNotification(Notification.builder()
+                        .setTitle(m.getTitle())
+                        .setBody(m.getBody())
+                        .build())
+                .putAllData(m.getData())
+                .build();
+    }
+
+    private static PushSendResult toResult(FirebaseMessagingException e) {
+        MessagingErrorCode code = e.getMessagingErrorCode();
+        PushSendResult.Status status;
+        if (code == MessagingErrorCode.UNREGISTERED) {
+            status = PushSendResult.Status.UNREGISTERED;
+        } else if (code == MessagingErrorCode.UNAVAILABLE
+                || code == MessagingErrorCode.INTERNAL
+                || code == MessagingErrorCode.QUOTA_EXCEEDED
+                || code == null) { // 코드가 없으면 네트워크 오류 등 → 재시도
+            status = PushSendResult.Status.TRANSIENT;
+        } else {
+            status = PushSendResult.Status.FAILED;
+        }
+        return new PushSendResult(status, code + ": " + e.getMessage());
+    }
+}
@@ -0,0 +1,150 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.entity.LlmCacheEntity;
+import com.synergy.bokja.repository.CombinationRepository;
+import com.synergy.bokja.repository.LlmCacheRepository;
+import com.synergy.bokja.repository.MedicineRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * LLM 응답 캐시 (llm_cache_table)
+ * - 입력이 같으면 결과도 같은 호출(category, description)의 응답을 저장해 두고 재사용
+ * - 키: SHA-256(mode, 정규화된 입력, 프롬프트 버전, 참조 데이터 시그니처)
+ * - 참조 데이터 시그니처: medicine_table / combination_table의 (건수, 최대 ID).
+ *   값이 바뀌면 키가 달라져 이전 응답은 더 이상 조회되지 않고, 기존 행도 즉시 삭제
+ * - TTL(llm.cache.ttl-hours)이 지난 행은 매일 정리
+ */
+@Component
+@RequiredArgsConstructor
+public class LlmResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    private final LlmCacheRepository llmCacheRepository;
+    private final MedicineRepository medicineRepository;
+    private final CombinationRepository combinationRepository;
+
+    @Value("${llm.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${llm.cache.ttl-hours:720}")
+    private long ttlHours;
+
+    // 프롬프트를 바꾸면 올려서 이전 응답을 무효화
+    @Value("${llm.cache.prompt-version:1}")
+    private String promptVersion;
+
+    private volatile String referenceSignature = "";
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            referenceSignature = currentReferenceSignature();
+        } catch (Exception e) {
+            log.warn("[LlmResponseCache] 참조 데이터 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /** (mode, 입력들) → 64자리 hex 키. 입력은 앞뒤 공백 제거 + 연속 공백 하나로 */
+    public String keyOf(String mode, String... inputs) {
+        StringBuilder material = new StringBuilder()
+                .append(mode).append('\u0000')
+                .append(promptVersion).append('\u0000')
+                .append(referenceSignature);
+        for (String input : inputs) {
+            material.append('\u0000').append(normalize(input));
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String get(String key) {
+        return getAll(List.of(key)).get(key);
+    }
+
+    /** 여러 키를 한 번에 조회 (만료되지 않은 것만, 키 → 응답) */
+    public Map<String, String> getAll(Collection<String> keys) {
+        if (!enabled || keys.isEmpty()) return Map.of();
+        try {
+            Map<String, String> hits = new HashMap<>();
+            for (LlmCacheEntity e : llmCacheRepository.findAllByCacheKeyInAndExpiresAtAfter(keys, LocalDateTime.now())) {
+                hits.put(e.getCacheKey(), e.getResponse());
+            }
+            return hits;
+        } catch (Exception e) {
+            log.warn("[LlmResponseCache] 캐시 조회 실패: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    public void put(String key, String mode, String response) {
+        if (!enabled || response == null || response.isBlank()) return;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            llmCacheRepository.save(LlmCacheEntity.builder()
+                    .cacheKey(key)
+                    .mode(mode)
+                    .response(response)
+                    .createdAt(now)
+                    .expiresAt(now.plusHours(ttlHours))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // 같은 키를 다른 업로드가 먼저 저장함 → 무시
+        } catch (Exception e) {
+            log.warn("[LlmResponseCache] 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    /** 참조 데이터(medicine_table / combination_table)가 바뀌었으면 캐시 전체 무효화 */
+    @Scheduled(fixedDelayString = "${llm.cache.reference-check-interval-ms:300000}",
+            initialDelayString = "${llm.cache.reference-check-interval-ms:300000}")
+    public void invalidateIfReferenceChanged() {
+        try {
+            String signature = currentReferenceSignature();
+            if (signature.equals(referenceSignature)) {
+                return;
+            }
+            referenceSignature = signature;
+            llmCacheRepository.deleteAllInBatch();
+            log.info("[LlmResponseCache] 참조 데이터 변경으로 LLM 캐시를 비웠습니다. ({})", signature);
+        } catch (Exception e) {
+            log.warn("[LlmResponseCache] 참조 데이터 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /** 만료된 캐시 정리 (매일 04:30) */
+    @Scheduled(cron = "${llm.cache.purge-cron:0 30 4 * * *}")
+    public void purgeExpired() {
+        int deleted = llmCacheRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("[LlmResponseCache] 만료된 LLM 캐시 {}건 삭제", deleted);
+        }
+    }
+
+    private String currentReferenceSignature() {
+        return medicineRepository.count() + ":" + medicineRepository.findMaxMdno() + "/"
+                + combinationRepository.count() + ":" + combinationRepository.findMaxCbno();
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().replaceAll("\\s+", " ");
+    }
+}
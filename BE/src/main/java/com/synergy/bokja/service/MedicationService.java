@@ -2,28 +2,26 @@ package com.synergy.bokja.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synergy.bokja.batch.AlarmSlotsChangedEvent;
 import com.synergy.bokja.dto.*;
 import com.synergy.bokja.dto.ocr.*;
 import com.synergy.bokja.entity.*;
+import com.synergy.bokja.python.PythonScript;
+import com.synergy.bokja.python.PythonBridge;
 import com.synergy.bokja.repository.*;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.text.Normalizer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -39,9 +37,9 @@ public class MedicationService {
     private final CycleRepository cycleRepository;
     private final DescriptionRepository descriptionRepository;
     private final QuizRepository quizRepository;
-    private final QuizOptionRepository quizOptionRepository;
     private final AlarmCombRepository alarmCombRepository;
-    private final CombinationRepository combinationRepository;
+    private final CombinationIndex combinationIndex;
+    private final LlmResponseCache llmResponseCache;
     private final TtsService ttsService;
     private final MaterialRepository materialRepository;
     private final EventNameRepository eventNameRepository;
@@ -49,37 +47,45 @@ public class MedicationService {
     private final UserTimeRepository userTimeRepository;
     private final TimeRepository timeRepository;
     private final ReportRepository reportRepository;
+    private final BatchInsertRepository batchInsertRepository;
+    private final PythonBridge pythonBridge;
+    private final MedicineNameMatcher medicineNameMatcher;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private final ObjectMapper objectMapper;
+    @Qualifier("generateExecutor")
+    private final Executor generateExecutor;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    private final ObjectMapper objectMapper;
 
-    @Value("${python.script.ocr}")
-    private String ocrScriptPath;
+    // 업로드 3단계(카테고리/안내 문구/퀴즈 후보 동시 조회) 전체 제한 시간
+    @Value("${medication.generate.timeout-ms:180000}")
+    private long generateTimeoutMs;
 
-    @Value("${python.script.llm}")
-    private String llmScriptPath;
+    // 안내 문구를 처방전 단위 1회 호출(describe_batch)로 생성할지 여부
+    @Value("${medication.description.batch-enabled:true}")
+    private boolean descriptionBatchEnabled;
 
     /**
      * 1. 새 복약 정보 등록(이미지 업로드)
+     * - MedicationUploadJobService가 작업 스레드에서 아래 단계를 순서대로 호출
+     *   OCR(recognize) → 약품 매칭(match) → 카테고리/안내 문구 생성(generate) → 저장(persist)
+     * - DB 트랜잭션은 마지막 저장 단계에만 (OCR/LLM 호출 동안 커넥션을 잡지 않음)
      */
-    @Transactional
-    public MedicationCreateResponseDTO uploadImg(Long uno, String mode, MultipartFile imageFile) {
+
+    // [1단계] 이미지 OCR → 병원명/약품 목록 파싱
+    public ParsedPrescriptionData recognize(String mode, byte[] image, String originalFileName) {
 
         ParsedPrescriptionData parsedData = null;
-        File tempFile = null;
 
         try {
-            // --- MultipartFile을 임시 파일로 저장 ---
-            tempFile = saveTempFile(imageFile);
-            String imagePath = tempFile.getAbsolutePath();
+            // --- 이미지는 임시 파일 없이 bytes 그대로 OCR 스크립트에 전달 ("-" = 경로 대신 입력 bytes) ---
+            String imageFormat = imageFormatOf(originalFileName);
 
             if(mode.equals("1")){
                 // 처방전 ocr
 
                 // --- 1. 처방전 ocr ---
-                String ocrJsonResult = runPythonScript(ocrScriptPath, imagePath, mode);
+                String ocrJsonResult = pythonBridge.run(PythonScript.OCR, image, "-", mode, imageFormat);
                 System.out.println("OCR Result (Mode 1): " + ocrJsonResult);
 
                 // --- 2. (수정) OCR 결과(JSON) 파싱 ---
@@ -91,8 +97,8 @@ public class MedicationService {
             } else if (mode.equals("2")) {
                 // 약봉투 ocr
 
-                // --- Python OCR 스크립트를 실행 (ProcessBuilder) ---
-                String ocrJsonResult = runPythonScript(ocrScriptPath, imagePath, mode);
+                // --- Python OCR 스크립트를 실행 ---
+                String ocrJsonResult = pythonBridge.run(PythonScript.OCR, image, "-", mode, imageFormat);
                 System.out.println("OCR Result (Mode 2): " + ocrJsonResult);
 
                 // --- OCR 결과(JSON) 파싱 ---
@@ -104,158 +110,267 @@ public class MedicationService {
             if (parsedData == null) {
                 throw new RuntimeException("OCR 파싱에 실패했거나 유효하지 않은 모드입니다.");
             }
+            return parsedData;
 
-            UserEntity user = userRepository.findByUno(uno);
-            if (user == null) throw new IllegalArgumentException("Invalid uno");
-
-            // === OCR 약품명 -> DB의 mdno로 매칭 ===
-            List<Long> mdnos = matchMedicinesWithLLM(parsedData.getMedicines());
-            List<MedicineEntity> matchedMeds = medicineRepository.findAllById(mdnos);
-
-            // === 병용섭취 주의사항 조회 ===
-            List<CombinationEntity> combinations = findCombinations(matchedMeds);
-
-            // === 대표 카테고리 생성 ===
-            String category = getRepresentativeCategory(matchedMeds);
-
-            // === 사이클 계산 ===
-            ParsedMedicineInfo primaryMed = findPrimaryMedicine(parsedData.getMedicines());
-            int taken = primaryMed.getDoseCount(); // 일 복약 횟수
-            int maxDoseDays = primaryMed.getDoseDays(); // 총 일수
-            int totalCycle = taken * maxDoseDays;
-            AlarmCombEntity alarmComb = mapTakenToAlarmComb(taken);
-
-            // === user_medicine_table 저장 ===
-            UserMedicineEntity newPrescription = UserMedicineEntity.builder()
-                    .user(user)
-                    .category(category)
-                    .hospital(parsedData.getHospitalName())
-                    .alarmComb(alarmComb)
-                    .taken(taken)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            UserMedicineEntity savedPrescription = userMedicineRepository.save(newPrescription);
-            Long umno = savedPrescription.getUmno();
-
-            // === cycle_table 저장 ===
-            CycleEntity newCycle = CycleEntity.builder()
-                    .userMedicine(savedPrescription) // umno FK
-                    .totalCycle(totalCycle)
-                    .curCycle(0)
-                    .saveCycle(0)
-                    .startDate(LocalDate.now())
-                    .endDate(LocalDate.now().plusDays(maxDoseDays - 1))
-                    .build();
-            cycleRepository.save(newCycle);
-
-            // === report_table 저장 (리포트 뼈대 생성) ===
-            // - userMedicine: 이번에 생성된 복약
-            // - cycle: 이번에 생성된 주기
-            ReportEntity report = ReportEntity.builder()
-                    .userMedicine(savedPrescription)
-                    .cycle(newCycle)
-                    .description("")
-                    .build();
-            reportRepository.save(report);
+        } catch (IOException | InterruptedException e) {
+            // 프로세스 실행 중 예외 처리
+            throw new RuntimeException("Failed to process prescription image", e);
+        }
+    }
 
-            // === 퀴즈 생성 ===
-            generateQuizzes(savedPrescription, matchedMeds, combinations, category);
+    // [2단계] OCR 약품명 -> DB의 약품으로 매칭
+    public List<MedicineEntity> match(ParsedPrescriptionData parsedData) {
+        try {
+            List<Long> mdnos = matchMedicines(parsedData.getMedicines());
+            return medicineRepository.findAllById(mdnos);
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException("Failed to match medicines", e);
+        }
+    }
 
-            // === user_medicine_item_table 저장 ===
-            List<String> finalDescriptionList = new ArrayList<>();
+    // [3단계] 병용주의 조회 + 대표 카테고리 + 약품별 안내 문구 + 퀴즈 오답 후보 조회
+    // - 매칭 이후 서로 의존하지 않는 호출들을 generateExecutor에서 동시에 실행 (소요 시간 ≈ 가장 느린 호출 1건)
+    // - 호출별 시간 제한은 PythonBridge의 스크립트별 timeout, 단계 전체는 medication.generate.timeout-ms
+    // - 하나라도 실패/시간 초과면 남은 호출은 취소 (실행 중인 Python 프로세스도 종료)
+    // - 안내 문구는 기본적으로 처방전 단위 1회 호출(describe_batch), 검증에 실패한 약품만 개별 호출로 다시 생성
+    // - 카테고리/안내 문구는 LLM 응답 캐시(llm_cache_table)에 있으면 호출하지 않음
+    public PrescriptionDraft generate(ParsedPrescriptionData parsedData, List<MedicineEntity> matchedMeds) {
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(generateTimeoutMs);
+        try {
+            // === 병용섭취 주의사항 조회 (메모리 인덱스) ===
+            List<CombinationEntity> combinations = combinationIndex.findFor(matchedMeds);
 
+            // === LLM 응답 캐시 조회 (카테고리 + 약품별 안내 문구, 한 번에) ===
+            String categoryKey = categoryCacheKey(matchedMeds);
+            List<String> descriptionKeys = new ArrayList<>();
             for (MedicineEntity med : matchedMeds) {
-                // LLM으로 최종 설명 생성
-                String finalDescription = createFinalDescription(med, combinations);
-                finalDescriptionList.add(finalDescription);
-
-                UserMedicineItemEntity item = UserMedicineItemEntity.builder()
-                        .userMedicine(savedPrescription) // umno FK
-                        .medicine(med) // mdno FK
-                        .description(finalDescription)
-                        .build();
-                userMedicineItemRepository.save(item);
+                descriptionKeys.add(descriptionCacheKey(med));
+            }
+            List<String> allKeys = new ArrayList<>(descriptionKeys);
+            allKeys.add(categoryKey);
+            Map<String, String> cached = llmResponseCache.getAll(allKeys);
+
+            // === 대표 카테고리 생성 (캐시에 없을 때만 LLM) ===
+            String cachedCategory = cached.get(categoryKey);
+            CompletableFuture<String> categoryCall = null;
+            if (cachedCategory == null) {
+                categoryCall = requestRepresentativeCategory(matchedMeds);
+                calls.add(categoryCall);
             }
 
-            // === description_table 저장 ===
-            String fullDescription = String.join("\n", finalDescriptionList);
-
-            EventNameEntity eventName = eventNameRepository.findById(3L)
-                    .orElseThrow(() -> new IllegalArgumentException("enno=3인 EventName을 찾을 수 없습니다."));
+            // === 약품별 최종 설명 생성 (캐시에 없는 약품만 LLM) ===
+            String[] descriptions = new String[matchedMeds.size()];
+            List<Integer> misses = new ArrayList<>();
+            for (int i = 0; i < matchedMeds.size(); i++) {
+                descriptions[i] = cached.get(descriptionKeys.get(i));
+                if (descriptions[i] == null) misses.add(i);
+            }
+            List<MedicineEntity> missedMeds = misses.stream().map(matchedMeds::get).collect(Collectors.toList());
+
+            boolean batch = descriptionBatchEnabled && missedMeds.size() > 1;
+            CompletableFuture<String> batchCall = null;
+            List<CompletableFuture<String>> descriptionCalls = new ArrayList<>();
+            if (batch) {
+                batchCall = requestFinalDescriptionBatch(missedMeds);
+                calls.add(batchCall);
+            } else {
+                for (MedicineEntity med : missedMeds) {
+                    CompletableFuture<String> call = requestFinalDescription(med);
+                    descriptionCalls.add(call);
+                    calls.add(call);
+                }
+            }
 
-            DescriptionEntity aiDescription = DescriptionEntity.builder()
-                    .userMedicine(savedPrescription) // umno FK
-                    .eventName(eventName) // enno=3 FK
-                    .description(fullDescription) // 합쳐진 전체 설명
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            descriptionRepository.save(aiDescription);
+            // === 퀴즈 오답 후보 조회 (DB) ===
+            List<String> materialAnswers = combinationQuizAnswers(combinations);
+            List<String> classificationAnswers = classificationQuizAnswers(matchedMeds);
+            CompletableFuture<List<String>> materialWrongCall = materialAnswers.isEmpty()
+                    ? CompletableFuture.completedFuture(List.of())
+                    : CompletableFuture.supplyAsync(() -> materialRepository.findRandomMaterialsNotIn(materialAnswers), generateExecutor);
+            CompletableFuture<List<String>> classificationWrongCall = classificationAnswers.isEmpty()
+                    ? CompletableFuture.completedFuture(List.of())
+                    : CompletableFuture.supplyAsync(() -> medicineRepository.findRandomClassificationsNotIn(classificationAnswers), generateExecutor);
+            calls.add(materialWrongCall);
+            calls.add(classificationWrongCall);
+
+            // === 결과 취합 (새로 생성한 응답은 캐시에 저장) ===
+            String category = cachedCategory;
+            if (category == null) {
+                category = objectMapper.readValue(await(categoryCall, deadline), String.class); // "감기약" (따옴표 포함된 JSON)
+                llmResponseCache.put(categoryKey, "category", category);
+            }
 
-            createInitialAlarmTimes(user, savedPrescription, alarmComb);
+            List<String> generated = new ArrayList<>();
+            if (batch) {
+                generated = collectBatchDescriptions(missedMeds, batchCall, calls, deadline);
+            } else {
+                for (CompletableFuture<String> call : descriptionCalls) {
+                    generated.add(objectMapper.readValue(await(call, deadline), String.class));
+                }
+            }
+            for (int j = 0; j < misses.size(); j++) {
+                int i = misses.get(j);
+                descriptions[i] = generated.get(j);
+                llmResponseCache.put(descriptionKeys.get(i), "description", descriptions[i]);
+            }
+            List<String> finalDescriptionList = Arrays.asList(descriptions);
 
-            return new MedicationCreateResponseDTO(umno);
+            return new PrescriptionDraft(parsedData, matchedMeds, combinations, category, finalDescriptionList,
+                    await(materialWrongCall, deadline), await(classificationWrongCall, deadline));
 
-        } catch (IOException | InterruptedException e) {
-            // 프로세스 실행 중 예외 처리
-            throw new RuntimeException("Failed to process prescription image", e);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to generate prescription descriptions", e);
         } finally {
-            // --- 임시 파일 삭제 ---
-            if (tempFile != null && tempFile.exists()) {
-                tempFile.delete();
-            }
+            calls.forEach(call -> call.cancel(true)); // 이미 끝난 호출에는 영향 없음
         }
     }
 
     /**
-     * MultipartFile을 서버에 임시 파일로 저장
+     * describe_batch 결과 검증 후 취합
+     * - 개수가 약품 수와 다르거나 호출 자체가 실패하면 전체를, 빈 문구인 항목은 해당 약품만 개별 호출(description)로 다시 생성
      */
-    private File saveTempFile(MultipartFile multipartFile) throws IOException {
-        String originalFileName = multipartFile.getOriginalFilename();
-        String uniqueFileName = UUID.randomUUID().toString() + "_" + originalFileName;
+    private List<String> collectBatchDescriptions(List<MedicineEntity> matchedMeds, CompletableFuture<String> batchCall,
+                                                  List<CompletableFuture<?>> calls, long deadline) throws IOException {
+        List<String> batchResult = null;
+        try {
+            batchResult = objectMapper.readValue(await(batchCall, deadline), new TypeReference<List<String>>() {});
+        } catch (RuntimeException | IOException e) {
+            System.out.println("describe_batch 실패, 약품별 개별 생성으로 대체합니다: " + e.getMessage());
+        }
+        if (batchResult != null && batchResult.size() != matchedMeds.size()) {
+            System.out.println("describe_batch 결과 개수 불일치 (" + batchResult.size() + "/" + matchedMeds.size() + "), 약품별 개별 생성으로 대체합니다.");
+            batchResult = null;
+        }
 
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        // 1. 검증에 실패한 항목만 개별 호출
+        Map<Integer, CompletableFuture<String>> retries = new LinkedHashMap<>();
+        for (int i = 0; i < matchedMeds.size(); i++) {
+            String text = batchResult != null ? batchResult.get(i) : null;
+            if (text == null || text.isBlank()) {
+                CompletableFuture<String> call = requestFinalDescription(matchedMeds.get(i));
+                retries.put(i, call);
+                calls.add(call);
+            }
         }
 
-        Path filePath = uploadPath.resolve(uniqueFileName);
-        multipartFile.transferTo(filePath);
-        return filePath.toFile();
+        // 2. 배치 결과 + 개별 결과 취합 (약품 순서 유지)
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < matchedMeds.size(); i++) {
+            CompletableFuture<String> retry = retries.get(i);
+            descriptions.add(retry != null
+                    ? objectMapper.readValue(await(retry, deadline), String.class)
+                    : batchResult.get(i).trim());
+        }
+        return descriptions;
     }
 
-    /**
-     * Python 스크립트를 실행하고 그 결과를 String(JSON)으로 반환
-     */
-    private String runPythonScript(String scriptPath, String... args) throws IOException, InterruptedException {
-        // 1. 명령어 리스트 생성 ("python3", "script.py", "arg1", "arg2")
-        List<String> command = new java.util.ArrayList<>();
-        command.add("python3"); // (또는 "python")
-        command.add(scriptPath);
-        command.addAll(Arrays.asList(args));
-
-        // 2. 프로세스 빌더 생성 및 시작
-        ProcessBuilder pb = new ProcessBuilder(command);
-        Process process = pb.start();
-
-        // 3. Python의 print() 결과 (stdout) 읽기
-        StringBuilder output = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8")); // UTF-8로 인코딩
-        String line;
-        while ((line = reader.readLine()) != null) {
-            output.append(line);
+    private <T> T await(CompletableFuture<T> future, long deadlineNanos) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("복약 안내 생성 시간이 초과되었습니다.");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to generate prescription descriptions", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to generate prescription descriptions", e);
         }
+    }
+
+    // [4단계] 생성 결과 저장 (이 단계만 트랜잭션)
+    @Transactional
+    public MedicationCreateResponseDTO persist(Long uno, PrescriptionDraft draft) {
+
+        UserEntity user = userRepository.findByUno(uno);
+        if (user == null) throw new IllegalArgumentException("Invalid uno");
+
+        ParsedPrescriptionData parsedData = draft.getParsedData();
+        List<MedicineEntity> matchedMeds = draft.getMatchedMeds();
+        String category = draft.getCategory();
+
+        // === 사이클 계산 ===
+        ParsedMedicineInfo primaryMed = findPrimaryMedicine(parsedData.getMedicines());
+        int taken = primaryMed.getDoseCount(); // 일 복약 횟수
+        int maxDoseDays = primaryMed.getDoseDays(); // 총 일수
+        int totalCycle = taken * maxDoseDays;
+        AlarmCombEntity alarmComb = mapTakenToAlarmComb(taken);
+
+        // === user_medicine_table 저장 ===
+        UserMedicineEntity newPrescription = UserMedicineEntity.builder()
+                .user(user)
+                .category(category)
+                .hospital(parsedData.getHospitalName())
+                .alarmComb(alarmComb)
+                .taken(taken)
+                .createdAt(LocalDateTime.now())
+                .build();
+        UserMedicineEntity savedPrescription = userMedicineRepository.save(newPrescription);
+        Long umno = savedPrescription.getUmno();
+
+        // === cycle_table 저장 ===
+        CycleEntity newCycle = CycleEntity.builder()
+                .userMedicine(savedPrescription) // umno FK
+                .totalCycle(totalCycle)
+                .curCycle(0)
+                .saveCycle(0)
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusDays(maxDoseDays - 1))
+                .build();
+        cycleRepository.save(newCycle);
+
+        // === report_table 저장 (리포트 뼈대 생성) ===
+        // - userMedicine: 이번에 생성된 복약
+        // - cycle: 이번에 생성된 주기
+        ReportEntity report = ReportEntity.builder()
+                .userMedicine(savedPrescription)
+                .cycle(newCycle)
+                .description("")
+                .build();
+        reportRepository.save(report);
+
+        // === 퀴즈 생성 ===
+        generateQuizzes(savedPrescription, draft);
 
-        // 4. 프로세스 종료 대기
-        int exitCode = process.waitFor();
+        // === user_medicine_item_table 저장 ===
+        List<String> finalDescriptionList = draft.getDescriptions();
 
-        // 5. 에러 처리 (Python 스크립트에서 에러가 났는지 확인)
-        if (exitCode != 0) {
-            BufferedReader errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream(), "UTF-8"));
-            String errorOutput = errorReader.lines().collect(Collectors.joining("\n"));
-            throw new RuntimeException("Python script exited with code " + exitCode + ". Error: " + errorOutput);
+        for (int i = 0; i < matchedMeds.size(); i++) {
+            UserMedicineItemEntity item = UserMedicineItemEntity.builder()
+                    .userMedicine(savedPrescription) // umno FK
+                    .medicine(matchedMeds.get(i)) // mdno FK
+                    .description(finalDescriptionList.get(i))
+                    .build();
+            userMedicineItemRepository.save(item);
         }
 
-        return output.toString();
+        // === description_table 저장 ===
+        String fullDescription = String.join("\n", finalDescriptionList);
+
+        EventNameEntity eventName = eventNameRepository.findById(3L)
+                .orElseThrow(() -> new IllegalArgumentException("enno=3인 EventName을 찾을 수 없습니다."));
+
+        DescriptionEntity aiDescription = DescriptionEntity.builder()
+                .userMedicine(savedPrescription) // umno FK
+                .eventName(eventName) // enno=3 FK
+                .description(fullDescription) // 합쳐진 전체 설명
+                .createdAt(LocalDateTime.now())
+                .build();
+        descriptionRepository.save(aiDescription);
+
+        createInitialAlarmTimes(user, savedPrescription, alarmComb);
+
+        return new MedicationCreateResponseDTO(umno);
+    }
+
+    /**
+     * 원본 파일명의 확장자 → OCR API에 넘길 이미지 포맷 (없으면 png)
+     */
+    private String imageFormatOf(String originalFileName) {
+        if (originalFileName == null) return "png";
+        int dot = originalFileName.lastIndexOf('.');
+        if (dot < 0 || dot == originalFileName.length() - 1) return "png";
+        return originalFileName.substring(dot + 1).toLowerCase(Locale.ROOT);
     }
 
     private ParsedPrescriptionData parseIncizorResult(IncizorResponse docResponse) {
@@ -367,69 +482,97 @@ public class MedicationService {
         return new ParsedPrescriptionData(hospitalName, medicines);
     }
 
-    private List<Long> matchMedicinesWithLLM(List<ParsedMedicineInfo> ocrMeds) throws IOException, InterruptedException {
-        // 1. (동일) DB/OCR 약품 리스트 준비
-        List<MedicineEntity> allDbMeds = medicineRepository.findAll();
-        List<Map<String, Object>> dbMedList = allDbMeds.stream()
-                .map(m -> {
-                    Map<String, Object> map = new java.util.HashMap<>();
-                    map.put("mdno", m.getMdno());
-                    map.put("name", m.getName());
-                    return map;
-                })
-                .collect(Collectors.toList());
+    /**
+     * OCR 약품명 → DB mdno 매칭
+     * - MedicineNameMatcher로 확실한 이름은 로컬에서 확정
+     * - 애매한 이름만 모아, 각 이름의 상위 후보(top-k)만 LLM(match_meds)에 전달
+     * - 인덱스를 쓸 수 없으면(구축 실패 / 아직 비어 있음) 예전처럼 모든 이름을 전체 약품 목록과 함께 LLM에 전달
+     */
+    private List<Long> matchMedicines(List<ParsedMedicineInfo> ocrMeds) throws IOException, InterruptedException {
+        Long[] resolved = new Long[ocrMeds.size()];
+        List<Integer> ambiguous = new ArrayList<>();
+        Map<Long, String> candidates = new LinkedHashMap<>();
+
+        // 1. 로컬 인덱스로 매칭
+        if (medicineNameMatcher.ensureReady()) {
+            for (int i = 0; i < ocrMeds.size(); i++) {
+                MedicineNameMatcher.Match match = medicineNameMatcher.match(ocrMeds.get(i).getName());
+                if (match.getMdno() != null) {
+                    resolved[i] = match.getMdno();
+                } else if (!match.getCandidates().isEmpty()) {
+                    ambiguous.add(i);
+                    match.getCandidates().forEach(c -> candidates.putIfAbsent(c.getMdno(), c.getName()));
+                }
+            }
+        } else {
+            System.out.println("약품명 인덱스를 사용할 수 없어 전체 약품 목록으로 매칭합니다.");
+            medicineRepository.findAll().forEach(m -> candidates.put(m.getMdno(), m.getName()));
+            for (int i = 0; i < ocrMeds.size(); i++) {
+                ambiguous.add(i);
+            }
+        }
 
-        List<String> ocrNames = ocrMeds.stream()
-                .map(ParsedMedicineInfo::getName)
-                .collect(Collectors.toList());
+        // 2. 애매한 이름만 LLM으로 (후보 약품만 전달)
+        if (!ambiguous.isEmpty()) {
+            List<String> ocrNames = ambiguous.stream()
+                    .map(i -> ocrMeds.get(i).getName())
+                    .collect(Collectors.toList());
+            List<Map<String, Object>> dbMedList = candidates.entrySet().stream()
+                    .map(c -> {
+                        Map<String, Object> map = new java.util.HashMap<>();
+                        map.put("mdno", c.getKey());
+                        map.put("name", c.getValue());
+                        return map;
+                    })
+                    .collect(Collectors.toList());
 
-        // 2. (수정) Python 스크립트 호출 (인자 3개 전달)
-        String llmResult = runPythonScript(llmScriptPath,
-                "match_meds", // sys.argv[1] (mode)
-                objectMapper.writeValueAsString(ocrNames), // sys.argv[2]
-                objectMapper.writeValueAsString(dbMedList) // sys.argv[3]
-        );
+            String llmResult = pythonBridge.run(PythonScript.LLM,
+                    "match_meds", // sys.argv[1] (mode)
+                    objectMapper.writeValueAsString(ocrNames), // sys.argv[2]
+                    objectMapper.writeValueAsString(dbMedList) // sys.argv[3]
+            );
+            List<Long> llmMdnos = objectMapper.readValue(llmResult, new TypeReference<List<Long>>() {});
+
+            // 후보 밖의 mdno는 버림
+            for (int j = 0; j < Math.min(llmMdnos.size(), ambiguous.size()); j++) {
+                Long mdno = llmMdnos.get(j);
+                if (mdno != null && candidates.containsKey(mdno)) {
+                    resolved[ambiguous.get(j)] = mdno;
+                }
+            }
+        }
 
-        // 3. (동일) LLM 결과(JSON 리스트) 파싱
-        return objectMapper.readValue(llmResult, new TypeReference<List<Long>>() {});
+        return Arrays.stream(resolved)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    /**
-     * [3단계] 약품 리스트로 병용섭취 주의사항 조회 (DB 쿼리)
-     */
-    private List<CombinationEntity> findCombinations(List<MedicineEntity> matchedMeds) {
-        // 1. 모든 name, ingredient, classification 추출
-        List<String> names = matchedMeds.stream()
-                .map(MedicineEntity::getName).collect(Collectors.toList());
+    // 카테고리 캐시 키: 정렬된 분류 집합에만 의존
+    private String categoryCacheKey(List<MedicineEntity> matchedMeds) {
         List<String> classifications = matchedMeds.stream()
-                .map(MedicineEntity::getClassification).distinct().collect(Collectors.toList());
-        List<String> ingredients = matchedMeds.stream()
-                .filter(med -> med.getIngredient() != null)
-                .flatMap(med -> Arrays.stream(med.getIngredient().split(",")))
-                .map(String::trim).distinct().collect(Collectors.toList());
-
-        // 2. Repository에 쿼리 요청
-        return combinationRepository.findCombinationsIn(names, ingredients, classifications);
+                .map(MedicineEntity::getClassification)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        return llmResponseCache.keyOf("category", String.join("\n", classifications));
     }
 
     /**
      * [4단계] 대표 카테고리 생성 (LLM)
      */
-    private String getRepresentativeCategory(List<MedicineEntity> matchedMeds) throws IOException, InterruptedException {
+    private CompletableFuture<String> requestRepresentativeCategory(List<MedicineEntity> matchedMeds) throws IOException {
         // 1. (동일) 분류 리스트 준비
         List<String> classifications = matchedMeds.stream()
                 .map(MedicineEntity::getClassification)
                 .distinct()
                 .collect(Collectors.toList());
 
-        // 2. (수정) Python 스크립트 호출 (인자 2개 전달)
-        String llmResult = runPythonScript(llmScriptPath,
+        // 2. Python 스크립트 비동기 호출 (결과는 JSON 문자열, 호출한 쪽에서 파싱)
+        return pythonBridge.submit(generateExecutor, PythonScript.LLM,
                 "category", // sys.argv[1] (mode)
                 objectMapper.writeValueAsString(classifications) // sys.argv[2]
         );
-
-        // 3. (수정) LLM 결과(JSON 문자열) 파싱
-        return objectMapper.readValue(llmResult, String.class); // "감기약" (따옴표 포함된 JSON)
     }
 
     /**
@@ -453,19 +596,54 @@ public class MedicationService {
     /**
      * [8단계] 최종 복약 안내 문구 생성 (LLM)
      */
-    private String createFinalDescription(MedicineEntity med, List<CombinationEntity> allCombinations) throws IOException, InterruptedException {
-
-        // 1. 약품과 관련된 주의사항 '객체'를 필터링 (NPE 방지 코드 포함)
-        List<CombinationEntity> relevantCombinations = allCombinations.stream()
-                .filter(c ->
-                        (c.getName() != null && c.getName().equals(med.getName())) ||
-                                (c.getClassification() != null && c.getClassification().equals(med.getClassification())) ||
-                                (c.getIngredient() != null && med.getIngredient() != null && med.getIngredient().contains(c.getIngredient()))
-                )
-                .collect(Collectors.toList());
+    private CompletableFuture<String> requestFinalDescription(MedicineEntity med) throws IOException {
+
+        // 1~2. 약품과 관련된 주의사항을 LLM에 보낼 형식으로
+        List<String> formattedWarnings = formatWarnings(med);
+
+        // 3. (중요) Python 스크립트에 '인자(argument)' 4개 전달 (비동기, 결과는 JSON 문자열)
+        return pythonBridge.submit(generateExecutor, PythonScript.LLM, "description",
+                med.getInformation(),
+                med.getDescription(),
+                objectMapper.writeValueAsString(formattedWarnings) // ["'프로바이오틱스' 관련 주의: ..."]
+        );
+    }
+
+    /**
+     * [8단계] 처방전 전체 약품의 안내 문구를 한 번에 생성 (LLM, describe_batch)
+     * - 결과는 약품 순서대로 문구가 담긴 JSON 배열 문자열
+     */
+    private CompletableFuture<String> requestFinalDescriptionBatch(List<MedicineEntity> matchedMeds) throws IOException {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (MedicineEntity med : matchedMeds) {
+            Map<String, Object> item = new java.util.HashMap<>();
+            item.put("information", med.getInformation());
+            item.put("description", med.getDescription());
+            item.put("warnings", formatWarnings(med));
+            items.add(item);
+        }
+
+        return pythonBridge.submit(generateExecutor, PythonScript.LLM, "describe_batch",
+                objectMapper.writeValueAsString(items) // [{"information": ..., "description": ..., "warnings": [...]}, ...]
+        );
+    }
+
+    // 안내 문구 캐시 키: (약품 정보, 약품 설명, 형식화된 주의사항)에만 의존
+    private String descriptionCacheKey(MedicineEntity med) {
+        return llmResponseCache.keyOf("description",
+                med.getInformation(),
+                med.getDescription(),
+                String.join("\n", formatWarnings(med)));
+    }
+
+    // 약품과 관련된 주의사항을 LLM에 보낼 형식으로 ("'프로바이오틱스' 관련 주의: ...")
+    private List<String> formatWarnings(MedicineEntity med) {
+
+        // 1. 약품과 관련된 주의사항 '객체' 조회 (메모리 인덱스)
+        List<CombinationEntity> relevantCombinations = combinationIndex.findFor(med);
 
         // 2. LLM에 보낼 '형식화된 주의사항' 리스트 생성
-        List<String> formattedWarnings = relevantCombinations.stream().map(combo -> {
+        return relevantCombinations.stream().map(combo -> {
             // mtno가 연결된 경우
             if (combo.getMaterial() != null && combo.getMaterial().getName() != null) {
                 // LLM에 "프로바이오틱스"와 "주의 문구"를 세트로 묶어서 전달
@@ -475,15 +653,6 @@ public class MedicationService {
                 return String.format("'%s' 관련 주의: %s", combo.getIngredient(), combo.getInformation());
             }
         }).distinct().collect(Collectors.toList());
-
-        // 3. (중요) Python 스크립트에 '인자(argument)' 4개 전달
-        String llmResult = runPythonScript(llmScriptPath, "description",
-                med.getInformation(),
-                med.getDescription(),
-                objectMapper.writeValueAsString(formattedWarnings) // ["'프로바이오틱스' 관련 주의: ..."]
-        );
-
-        return objectMapper.readValue(llmResult, String.class);
     }
 
     private ParsedMedicineInfo findPrimaryMedicine(List<ParsedMedicineInfo> medicines) {
@@ -495,28 +664,43 @@ public class MedicationService {
     /**
      * [8-1] 퀴즈 생성 로직 (메인)
      */
-    private void generateQuizzes(UserMedicineEntity prescription, List<MedicineEntity> matchedMeds, List<CombinationEntity> combinations, String category) {
+    private void generateQuizzes(UserMedicineEntity prescription, PrescriptionDraft draft) {
 
         // 1. (병용주의 퀴즈) - 조건부 생성
-        generateCombinationQuiz(prescription, category, combinations);
+        generateCombinationQuiz(prescription, draft.getCategory(),
+                combinationQuizAnswers(draft.getCombinations()), draft.getMaterialWrongAnswers());
 
         // 2. (약효분류 퀴즈) - 항상 생성
-        generateClassificationQuiz(prescription, category, matchedMeds);
+        generateClassificationQuiz(prescription, draft.getCategory(),
+                classificationQuizAnswers(draft.getMatchedMeds()), draft.getClassificationWrongAnswers());
     }
 
-    /**
-     * [8-2] "병용주의" 퀴즈 생성
-     */
-    private void generateCombinationQuiz(UserMedicineEntity prescription, String category, List<CombinationEntity> combinations) {
-
-        // 1. 정답 후보 (주의 원료) 추출
-        List<String> correctAnswers = combinations.stream()
+    // 병용주의 퀴즈 정답 후보 (주의 원료)
+    private List<String> combinationQuizAnswers(List<CombinationEntity> combinations) {
+        return combinations.stream()
                 .map(CombinationEntity::getMaterial) // mtno에 연결된 MaterialEntity
                 .filter(Objects::nonNull) // material이 null이 아닌 것만
                 .map(MaterialEntity::getName) // ex."프로바이오틱스"
                 .filter(Objects::nonNull)
                 .distinct()
                 .collect(Collectors.toList());
+    }
+
+    // 약효분류 퀴즈 정답 후보 (OCR로 뽑은 약들의 약효 분류)
+    private List<String> classificationQuizAnswers(List<MedicineEntity> matchedMeds) {
+        return matchedMeds.stream()
+                .map(MedicineEntity::getClassification)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * [8-2] "병용주의" 퀴즈 생성
+     */
+    private void generateCombinationQuiz(UserMedicineEntity prescription, String category,
+                                         List<String> correctAnswers, List<String> wrongAnswers) {
+
+        // 1. 정답 후보 (주의 원료)는 3단계에서 추출, 오답 후보 (material_table에서 정답을 제외하고 랜덤 5개)는 3단계에서 조회
 
         // 2. 정답이 없으면 생성하지 않음
         if (correctAnswers.isEmpty()) {
@@ -532,23 +716,17 @@ public class MedicationService {
                 .build();
         QuizEntity savedQuiz = quizRepository.save(quiz);
 
-        // 4. 오답 후보 (material_table에서 정답을 제외하고 랜덤 5개)
-        List<String> wrongAnswers = materialRepository.findRandomMaterialsNotIn(correctAnswers);
-
-        // 5. quiz_option_table에 정답/오답 저장
+        // 4. quiz_option_table에 정답/오답 저장
         saveQuizOptions(savedQuiz, correctAnswers, wrongAnswers);
     }
 
     /**
      * [8-3] "약효분류" 퀴즈 생성
      */
-    private void generateClassificationQuiz(UserMedicineEntity prescription, String category, List<MedicineEntity> matchedMeds) {
+    private void generateClassificationQuiz(UserMedicineEntity prescription, String category,
+                                            List<String> correctAnswers, List<String> wrongAnswers) {
 
-        // 1. 정답 후보 (OCR로 뽑은 약들의 약효 분류)
-        List<String> correctAnswers = matchedMeds.stream()
-                .map(MedicineEntity::getClassification)
-                .distinct()
-                .collect(Collectors.toList());
+        // 1. 정답 후보 (OCR로 뽑은 약들의 약효 분류), 오답 후보 (medicine_table의 다른 classification 랜덤 5개)는 3단계에서 조회
 
         // (이 퀴즈는 matchedMeds가 1개 이상이므로 항상 정답이 있음)
 
@@ -560,10 +738,7 @@ public class MedicationService {
                 .build();
         QuizEntity savedQuiz = quizRepository.save(quiz);
 
-        // 3. 오답 후보 (medicine_table의 다른 classification 랜덤 5개)
-        List<String> wrongAnswers = medicineRepository.findRandomClassificationsNotIn(correctAnswers);
-
-        // 4. quiz_option_table에 정답/오답 저장
+        // 3. quiz_option_table에 정답/오답 저장
         saveQuizOptions(savedQuiz, correctAnswers, wrongAnswers);
     }
 
@@ -571,26 +746,28 @@ public class MedicationService {
      * [8-4] 퀴즈 옵션(정답/오답)을 DB에 저장하는 공통 메서드
      */
     private void saveQuizOptions(QuizEntity quiz, List<String> correctAnswers, List<String> wrongAnswers) {
+        List<QuizOptionEntity> options = new ArrayList<>();
 
-        // 1. 정답 저장 (isCorrect = true)
+        // 1. 정답 (isCorrect = true)
         for (String answer : correctAnswers) {
-            QuizOptionEntity option = QuizOptionEntity.builder()
+            options.add(QuizOptionEntity.builder()
                     .quiz(quiz) // qno FK
                     .content(answer)
                     .isCorrect(true)
-                    .build();
-            quizOptionRepository.save(option);
+                    .build());
         }
 
-        // 2. 오답 저장 (isCorrect = false)
+        // 2. 오답 (isCorrect = false)
         for (String wrong : wrongAnswers) {
-            QuizOptionEntity option = QuizOptionEntity.builder()
+            options.add(QuizOptionEntity.builder()
                     .quiz(quiz) // qno FK
                     .content(wrong)
                     .isCorrect(false)
-                    .build();
-            quizOptionRepository.save(option);
+                    .build());
         }
+
+        // 3. 한 번에 저장 (JDBC batch)
+        batchInsertRepository.insertQuizOptions(options);
     }
 
     /**
@@ -720,6 +897,7 @@ public class MedicationService {
 
         // 8) 변경 사항 저장 (update만 수행, delete 없음)
         alarmTimeRepository.saveAll(existingTimes);
+        eventPublisher.publishEvent(new AlarmSlotsChangedEvent(uno)); // 커밋 후 오늘 알림 슬롯 갱신
 
         // 9) 응답 DTO
         return new MedicationCombinationResponseDTO(
@@ -744,25 +922,19 @@ public class MedicationService {
         // 2. 약품 목록 조회
         List<UserMedicineItemEntity> items = userMedicineItemRepository.findAllByUserMedicine_Umno(umno);
 
-        // 3. (핵심 수정) 처방된 약품들만 추출하여 관련 Combination만 Bulk 조회
-        List<MedicineEntity> allMedicines = items.stream()
-                .map(UserMedicineItemEntity::getMedicine)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        // TTS는 약품별로 병렬 생성 (기한 내 못 끝난 항목은 audioUrl = null)
+        Map<String, String> audioUrls = ttsService.generateTtsUrls(items.stream()
+                .map(UserMedicineItemEntity::getDescription)
+                .collect(Collectors.toList()));
 
-        // 여기서 이전에 만든 로직을 재사용하여 정확하게 매칭되는 조합만 DB에서 가져옴
-        List<CombinationEntity> relevantCombinations = findCombinations(allMedicines);
-
-        // 4. DTO 변환 및 매핑
+        // 3. DTO 변환 및 매핑
         List<MedicationItemDTO> medicines = items.stream()
                 .map(item -> {
                     MedicineEntity med = item.getMedicine();
                     if (med == null) return null;
 
-                    // 4-1. 현재 약(med)에 해당하는 주의사항만 필터링하여 MaterialDTO로 변환
-                    // (findCombinations 로직과 동일한 조건으로 매칭)
-                    List<MaterialDTO> materials = relevantCombinations.stream()
-                            .filter(comb -> isCombinationMatch(med, comb)) // 헬퍼 메서드로 분리
+                    // 3-1. 현재 약(med)에 해당하는 주의사항을 인덱스에서 조회하여 MaterialDTO로 변환
+                    List<MaterialDTO> materials = combinationIndex.findFor(med).stream()
                             .map(CombinationEntity::getMaterial) // MaterialEntity 추출
                             .filter(Objects::nonNull)
                             .map(mat -> MaterialDTO.builder()
@@ -772,9 +944,9 @@ public class MedicationService {
                             .distinct() // 중복 제거 (같은 원료가 여러 이유로 걸릴 수 있음)
                             .collect(Collectors.toList());
 
-                    // TTS 생성 (Base64 문자열 반환)
+                    // TTS 오디오 URL (음성은 GET /audio/{hash}로 받음)
                     String descriptionText = item.getDescription();
-                    String audioUrl = ttsService.generateTtsFromText(descriptionText);
+                    String audioUrl = descriptionText == null ? null : audioUrls.get(descriptionText);
 
                     return MedicationItemDTO.builder()
                             .mdno(med.getMdno())
@@ -782,7 +954,7 @@ public class MedicationService {
                             .classification(med.getClassification())
                             .image(med.getImage())
                             .description(descriptionText) // DB값 그대로
-                            .audioUrl(audioUrl) // TTS 오디오 Base64 인코딩 문자열
+                            .audioUrl(audioUrl) // TTS 오디오 URL
                             .materials(materials) // 매칭된 원료 리스트
                             .build();
                 })
@@ -796,43 +968,6 @@ public class MedicationService {
                 .build();
     }
 
-    private boolean isCombinationMatch(MedicineEntity med, CombinationEntity comb) {
-        // 1. 약품명 일치
-        if (comb.getName() != null && comb.getName().equals(med.getName())) {
-            return true;
-        }
-        // 2. 약효분류 일치
-        if (comb.getClassification() != null && comb.getClassification().equals(med.getClassification())) {
-            return true;
-        }
-        // 3. 성분 포함 여부 (쉼표로 구분된 성분 중 하나라도 일치하면 true)
-        if (comb.getIngredient() != null && med.getIngredient() != null) {
-            // 예: med="성분A, 성분B", comb="성분A" -> 매칭 성공
-            String[] medIngredients = med.getIngredient().split(",");
-            for (String ingredient : medIngredients) {
-                if (ingredient.trim().equals(comb.getIngredient())) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    //한글/영문/숫자만 남기고 공백·기호 제거, 정규화(NFKC), 소문자
-    private String normalizeKR(String s) {
-        if (s == null) return "";
-        String n = Normalizer.normalize(s, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
-        return n.replaceAll("[^\\p{IsLetter}\\p{IsDigit}]", "");
-    }
-
-    // 부분 일치 규칙: ingredient != null && (medName.contains(ingredient) || ingredient.contains(medName))
-    private boolean nameMatches(String medNameNorm, String ingredientRaw) {
-        if (ingredientRaw == null) return false;
-        String ing = normalizeKR(ingredientRaw);
-        if (ing.isEmpty() || medNameNorm.isEmpty()) return false;
-        return medNameNorm.contains(ing) || ing.contains(medNameNorm);
-    }
-
     /**
      * 5. 복약 정보 부분 수정(카테고리)
      */
@@ -891,34 +1026,28 @@ public class MedicationService {
         // 3. 복약에 포함된 약 리스트 조회
         List<UserMedicineItemEntity> items = userMedicineItemRepository.findAllByUserMedicine_Umno(umno);
 
-        // 4. [핵심 수정] 처방된 약품들만 추출하여 관련 Combination만 Bulk 조회 (최적화)
-        List<MedicineEntity> allMedicines = items.stream()
-                .map(UserMedicineItemEntity::getMedicine)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        // (이전에 만든 findCombinations 메서드 재사용)
-        List<CombinationEntity> relevantCombinations = findCombinations(allMedicines);
+        // TTS는 약품별로 병렬 생성 (기한 내 못 끝난 항목은 audioUrl = null)
+        Map<String, String> audioUrls = ttsService.generateTtsUrls(items.stream()
+                .map(UserMedicineItemEntity::getDescription)
+                .collect(Collectors.toList()));
 
-        // 5. DTO 매핑
+        // 4. DTO 매핑
         List<MedicationDetailMedicineDTO> medicines = items.stream()
                 .map(item -> {
                     MedicineEntity med = item.getMedicine();
                     if (med == null) return null;
 
-                    // [핵심 수정] 현재 약(med)에 해당하는 주의사항만 필터링하여 MaterialDTO로 변환
-                    // (이전에 만든 isCombinationMatch 헬퍼 메서드 재사용)
-                    List<MaterialDTO> materials = relevantCombinations.stream()
-                            .filter(c -> isCombinationMatch(med, c))
+                    // 현재 약(med)에 해당하는 주의사항을 인덱스에서 조회하여 MaterialDTO로 변환
+                    List<MaterialDTO> materials = combinationIndex.findFor(med).stream()
                             .map(CombinationEntity::getMaterial)
                             .filter(Objects::nonNull)
                             .map(mat -> new MaterialDTO(mat.getMtno(), mat.getName()))
                             .distinct() // 중복 제거
                             .collect(Collectors.toList());
 
-                    // TTS 생성 (Base64 문자열 반환)
+                    // TTS 오디오 URL (음성은 GET /audio/{hash}로 받음)
                     String description = item.getDescription();
-                    String audioUrl = ttsService.generateTtsFromText(description);
+                    String audioUrl = description == null ? null : audioUrls.get(description);
 
                     return new MedicationDetailMedicineDTO(
                             med.getMdno(),
@@ -927,14 +1056,14 @@ public class MedicationService {
                             med.getImage(),
                             med.getDescription(),   // information (medicine_table)
                             description,             // description (user_medicine_item_table)
-                            audioUrl,                // TTS 오디오 Base64 인코딩 문자열
+                            audioUrl,                // TTS 오디오 URL
                             materials                // 병용주의 원료 리스트
                     );
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
-        // 6. 최종 DTO 반환
+        // 5. 최종 DTO 반환
         return new MedicationDetailResponseDTO(
                 userMedicine.getUmno(),
                 userMedicine.getHospital(),
@@ -1051,6 +1180,7 @@ public class MedicationService {
         // 5) 변경 적용
         alarmTime.setTime(newTimeEntity);
         alarmTimeRepository.save(alarmTime);
+        eventPublisher.publishEvent(new AlarmSlotsChangedEvent(uno)); // 커밋 후 오늘 알림 슬롯 갱신
 
         // 6) 응답 DTO
         return new MedicationTimeUpdateResponseDTO(
@@ -1067,6 +1197,7 @@ public class MedicationService {
      */
     private void createInitialAlarmTimes(UserEntity user, UserMedicineEntity prescription, AlarmCombEntity alarmComb) {
         List<String> activeTypes = new ArrayList<>();
+        List<AlarmTimeEntity> alarmTimes = new ArrayList<>();
 
         // 1. 활성화된 타입 확인 (순서 중요: 아침 -> 점심 -> 저녁 -> 취침전)
         if (Boolean.TRUE.equals(alarmComb.getBreakfast())) activeTypes.add("breakfast");
@@ -1078,13 +1209,15 @@ public class MedicationService {
             // 2. 해당 타입에 대해 유저가 설정한 시간(UserTime) 조회
             TimeEntity timeEntity = getUserTime(user.getUno(), type);
 
-            // 3. 알람 시간 생성 및 저장
-            AlarmTimeEntity alarmTime = AlarmTimeEntity.builder()
+            // 3. 알람 시간 생성
+            alarmTimes.add(AlarmTimeEntity.builder()
                     .userMedicine(prescription) // umno FK
                     .time(timeEntity)           // tno FK
-                    .build();
-            alarmTimeRepository.save(alarmTime);
+                    .build());
         }
+
+        // 4. 한 번에 저장 (JDBC batch)
+        batchInsertRepository.insertAlarmTimes(alarmTimes);
     }
 
     /**
@@ -0,0 +1,300 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.dto.MedicationCreateResponseDTO;
+import com.synergy.bokja.dto.MedicationUploadJobResponseDTO;
+import com.synergy.bokja.dto.ocr.ParsedPrescriptionData;
+import com.synergy.bokja.dto.ocr.PrescriptionDraft;
+import com.synergy.bokja.entity.MedicationUploadJobEntity;
+import com.synergy.bokja.entity.MedicineEntity;
+import com.synergy.bokja.repository.MedicationUploadJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 처방전/약봉투 업로드 비동기 처리
+ * - POST /medications 는 이미지를 받아 작업 ID만 바로 반환
+ * - 작업 스레드(uploadExecutor)에서 OCR → 약품 매칭 → 카테고리/안내 문구 생성 → 저장 순으로 진행
+ * - GET /medications/jobs/{jobId} 로 진행 단계와 결과(umno) 조회
+ * - 작업 상태는 medication_upload_job_table에 단계마다 기록 → 여러 인스턴스 중 어디로 조회가 와도 같은 결과
+ *   메모리(jobs)는 이 인스턴스가 실행 중인 작업과 끝난 작업의 캐시 (끝난 작업은 바뀌지 않으므로)
+ * - 실행 인스턴스가 죽어 job-stale-ms 동안 갱신이 없는 작업은 FAILED로 응답
+ * - 끝난 작업은 job-ttl-ms 이후 메모리/테이블에서 정리
+ */
+@Service
+@RequiredArgsConstructor
+public class MedicationUploadJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicationUploadJobService.class);
+
+    private final MedicationService medicationService;
+    private final UploadDedupIndex uploadDedupIndex;
+    private final MedicationUploadJobRepository medicationUploadJobRepository;
+
+    @Qualifier("uploadExecutor")
+    private final Executor uploadExecutor;
+
+    // 끝난(DONE/FAILED) 작업 상태를 보관하는 시간
+    @Value("${medication.upload.job-ttl-ms:1800000}")
+    private long jobTtlMs;
+
+    // 끝나지 않은 작업이 이 시간 동안 갱신되지 않으면 실행 인스턴스가 죽은 것으로 봄 (단계 하나의 최대 소요 시간보다 길게)
+    @Value("${medication.upload.job-stale-ms:600000}")
+    private long jobStaleMs;
+
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 업로드 작업 등록
+     * - 요청 스레드에서는 이미지 bytes만 읽고 바로 반환 (MultipartFile은 요청이 끝나면 정리되므로)
+     * - 같은 Idempotency-Key로 다시 요청하면 (다른 인스턴스로 가도) 새 작업 없이 기존 작업(완료 시 umno 포함) 반환
+     * - 같은 이미지를 window 안에 다시 올리면
+     *   · 이전 작업이 아직 진행 중이거나 성공(DONE): 그 작업(umno 포함)을 그대로 반환
+     *     (매칭/LLM 생성/저장을 다시 하지 않음 → 같은 처방전으로 복약 정보가 두 번 생기지 않음)
+     *   · 이전 작업이 실패: 이 인스턴스에 이전 OCR 파싱 결과가 있으면 재사용해 OCR 단계만 생략하고 새 작업으로 다시 처리
+     */
+    public MedicationUploadJobResponseDTO submit(Long uno, String mode, MultipartFile imageFile, String idempotencyKey) {
+        UploadJob replay = findJob(uno, uploadDedupIndex.findJobIdByIdempotencyKey(uno, idempotencyKey));
+        if (replay != null) {
+            return replay.toDTO();
+        }
+
+        if (!"1".equals(mode) && !"2".equals(mode)) {
+            throw new IllegalArgumentException("유효하지 않은 모드입니다: " + mode);
+        }
+        if (imageFile == null || imageFile.isEmpty()) {
+            throw new IllegalArgumentException("이미지 파일이 비어 있습니다.");
+        }
+
+        byte[] image;
+        try {
+            image = imageFile.getBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("이미지 파일을 읽을 수 없습니다.", e);
+        }
+
+        UploadDedupIndex.Fingerprint fingerprint = uploadDedupIndex.fingerprint(uno, mode, image);
+        UploadJob job;
+        ParsedPrescriptionData reusedParse = null;
+
+        // 같은 인스턴스 안의 동시 업로드끼리는 이 잠금으로, 인스턴스 사이에서는 Idempotency-Key 유니크로 하나만 생성
+        synchronized (this) {
+            String previousJobId = uploadDedupIndex.findDuplicateJobId(fingerprint);
+            if (previousJobId != null) {
+                UploadJob previousJob = findJob(uno, previousJobId);
+                if (previousJob != null && !"FAILED".equals(previousJob.status)) {
+                    return claimedJob(uno, idempotencyKey, previousJob).toDTO();
+                }
+                reusedParse = uploadDedupIndex.findParsedData(previousJobId);
+            }
+
+            job = new UploadJob(UUID.randomUUID().toString(), uno);
+            save(job, mode, fingerprint);
+            UploadJob owner = claimedJob(uno, idempotencyKey, job);
+            if (owner != job) {
+                // 같은 키의 다른 요청(다른 인스턴스)이 먼저 작업을 만듦 → 방금 만든 작업은 버리고 그 작업 반환
+                medicationUploadJobRepository.deleteByJobId(job.jobId);
+                return owner.toDTO();
+            }
+            jobs.put(job.jobId, job);
+        }
+
+        ParsedPrescriptionData parse = reusedParse;
+        try {
+            uploadExecutor.execute(() -> run(job, mode, image, imageFile.getOriginalFilename(), parse));
+        } catch (RejectedExecutionException e) {
+            // 작업/키 연결을 지워서 같은 이미지나 같은 키로 다시 요청하면 새 작업으로 처리되게
+            jobs.remove(job.jobId);
+            uploadDedupIndex.releaseIdempotencyKey(uno, idempotencyKey, job.jobId);
+            medicationUploadJobRepository.deleteByJobId(job.jobId);
+            throw new IllegalStateException("처리 중인 업로드가 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        return job.toDTO();
+    }
+
+    // Idempotency-Key를 job에 연결. 키를 이미 다른 작업이 가졌으면 그 작업
+    private UploadJob claimedJob(Long uno, String idempotencyKey, UploadJob job) {
+        String ownerJobId = uploadDedupIndex.claimIdempotencyKey(uno, idempotencyKey, job.jobId);
+        if (job.jobId.equals(ownerJobId)) {
+            return job;
+        }
+        UploadJob owner = findJob(uno, ownerJobId);
+        if (owner == null) {
+            throw new IllegalStateException("같은 요청을 처리하는 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+        return owner;
+    }
+
+    // 이 인스턴스의 캐시 → 없으면 테이블 (다른 인스턴스가 실행 중이거나 끝낸 작업)
+    private UploadJob findJob(Long uno, String jobId) {
+        if (jobId == null) return null;
+        UploadJob job = jobs.get(jobId);
+        if (job == null) {
+            job = medicationUploadJobRepository.findByJobId(jobId).map(this::fromEntity).orElse(null);
+            if (job != null && job.finishedAt > 0) {
+                jobs.putIfAbsent(jobId, job); // 끝난 작업은 더 바뀌지 않으므로 캐시
+            }
+        }
+        return job != null && job.uno.equals(uno) ? job : null;
+    }
+
+    /**
+     * 작업 상태 조회 (본인 작업만)
+     */
+    public MedicationUploadJobResponseDTO getStatus(Long uno, String jobId) {
+        UploadJob job = findJob(uno, jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("해당 업로드 작업을 찾을 수 없습니다: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    private void run(UploadJob job, String mode, byte[] image, String originalFileName,
+                     ParsedPrescriptionData reusedParse) {
+        try {
+            job.status = "RUNNING";
+
+            progress(job, "OCR");
+            ParsedPrescriptionData parsedData = reusedParse; // 같은 이미지의 이전 파싱 결과
+            if (parsedData == null) {
+                parsedData = medicationService.recognize(mode, image, originalFileName);
+            }
+            uploadDedupIndex.rememberParsedData(job.jobId, parsedData);
+
+            progress(job, "MATCH");
+            List<MedicineEntity> matchedMeds = medicationService.match(parsedData);
+
+            progress(job, "GENERATE");
+            PrescriptionDraft draft = medicationService.generate(parsedData, matchedMeds);
+
+            progress(job, "PERSIST");
+            MedicationCreateResponseDTO result = medicationService.persist(job.uno, draft);
+
+            job.umno = result.getUmno();
+            job.status = "DONE";
+        } catch (Exception e) {
+            log.warn("[MedicationUploadJobService] 업로드 작업 실패 (jobId={}, stage={}): {}",
+                    job.jobId, job.stage, e.getMessage());
+            job.message = e.getMessage();
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = System.currentTimeMillis();
+            finish(job);
+        }
+    }
+
+    private void save(UploadJob job, String mode, UploadDedupIndex.Fingerprint fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        medicationUploadJobRepository.save(MedicationUploadJobEntity.builder()
+                .jobId(job.jobId)
+                .uno(job.uno)
+                .mode(mode)
+                .imageSha256(fingerprint.getSha256())
+                .imageDhash(fingerprint.getDHash())
+                .status(job.status)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    // 단계 변경 기록 (기록 실패는 작업을 멈추지 않음, 다른 인스턴스의 조회만 한 단계 늦어짐)
+    private void progress(UploadJob job, String stage) {
+        job.stage = stage;
+        try {
+            medicationUploadJobRepository.updateProgress(job.jobId, job.status, stage, LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("[MedicationUploadJobService] 작업 단계 기록 실패 (jobId={}, stage={}): {}",
+                    job.jobId, stage, e.getMessage());
+        }
+    }
+
+    private void finish(UploadJob job) {
+        try {
+            medicationUploadJobRepository.finish(job.jobId, job.status, job.stage, job.umno,
+                    truncate(job.message), LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("[MedicationUploadJobService] 작업 결과 기록 실패 (jobId={}, status={}): {}",
+                    job.jobId, job.status, e.getMessage(), e);
+        }
+    }
+
+    private UploadJob fromEntity(MedicationUploadJobEntity entity) {
+        UploadJob job = new UploadJob(entity.getJobId(), entity.getUno());
+        job.status = entity.getStatus();
+        job.stage = entity.getStage();
+        job.umno = entity.getUmno();
+        job.message = entity.getMessage();
+        if (entity.getFinishedAt() != null) {
+            job.finishedAt = toMillis(entity.getFinishedAt());
+        } else if (entity.getUpdatedAt().isBefore(LocalDateTime.now().minusNanos(jobStaleMs * 1_000_000))) {
+            // 실행 인스턴스가 끝내지 못함 → 실패로 응답 (같은 이미지 재업로드는 새 작업으로 처리됨)
+            job.status = "FAILED";
+            job.message = "업로드 작업을 처리하던 서버가 중단되었습니다. 다시 시도해주세요.";
+        }
+        return job;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String truncate(String s) {
+        return s == null || s.length() <= 500 ? s : s.substring(0, 500);
+    }
+
+    /** 끝난 지 job-ttl-ms가 지난 작업 / window가 지난 중복 업로드 인덱스 정리 (테이블 정리는 모든 인스턴스가 해도 결과가 같음) */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpiredJobs() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.finishedAt > 0 && now - job.finishedAt > jobTtlMs);
+        uploadDedupIndex.evictExpired();
+        try {
+            LocalDateTime current = LocalDateTime.now();
+            medicationUploadJobRepository.deleteExpired(
+                    current.minusNanos(jobTtlMs * 1_000_000),
+                    current.minusNanos((jobStaleMs + jobTtlMs) * 1_000_000));
+        } catch (Exception e) {
+            log.warn("[MedicationUploadJobService] 끝난 업로드 작업 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private static class UploadJob {
+        final String jobId;
+        final Long uno;
+        volatile String status = "PENDING";
+        volatile String stage;
+        volatile Long umno;
+        volatile String message;
+        volatile long finishedAt;
+
+        UploadJob(String jobId, Long uno) {
+            this.jobId = jobId;
+            this.uno = uno;
+        }
+
+        MedicationUploadJobResponseDTO toDTO() {
+            return MedicationUploadJobResponseDTO.builder()
+                    .jobId(jobId)
+                    .status(status)
+                    .stage(stage)
+                    .umno(umno)
+                    .message(message)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.entity.MedicineEntity;
+import com.synergy.bokja.repository.MedicineRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * OCR 약품명 → medicine_table 매칭용 메모리 인덱스
+ * - 약품명을 정규화(normalizeKR) 후 한글 자모로 분해, 자모 2-gram 역색인으로 후보를 추리고
+ *   편집 거리(자모 단위) + 부분 일치(잘린 이름) 점수로 순위를 매김
+ * - 1등 점수가 충분히 높고 2등과 차이가 나면 로컬에서 확정, 아니면 상위 k개 후보만 LLM에 넘김
+ * - 기동 시 구축, 이후 주기적으로 (건수, 최대 mdno, 이름 체크섬)이 바뀌었을 때만 다시 구축
+ * - 인덱스가 비어 있으면(기동 시 구축 실패 등) match()는 후보를 주지 못하므로 호출 전 ensureReady()로 확인
+ */
+@Component
+@RequiredArgsConstructor
+public class MedicineNameMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicineNameMatcher.class);
+
+    private final MedicineRepository medicineRepository;
+
+    // 이 점수 이상이어야 로컬 확정 후보
+    @Value("${medicine.matcher.accept-score:0.85}")
+    private double acceptScore;
+
+    // 1등과 2등의 점수 차가 이 이상이어야 로컬 확정
+    @Value("${medicine.matcher.margin:0.1}")
+    private double margin;
+
+    // 애매한 이름에 대해 LLM으로 넘길 후보 수
+    @Value("${medicine.matcher.top-k:5}")
+    private int topK;
+
+    // 역색인으로 추린 뒤 편집 거리를 계산할 최대 후보 수
+    private static final int CANDIDATE_POOL = 50;
+
+    private volatile Index index = Index.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        refreshIfChanged();
+    }
+
+    /** medicine_table 변경 여부를 확인하고 바뀌었으면 인덱스를 다시 구축 */
+    @Scheduled(fixedDelayString = "${medicine.matcher.refresh-interval-ms:300000}",
+            initialDelayString = "${medicine.matcher.refresh-interval-ms:300000}")
+    public void refreshIfChanged() {
+        try {
+            String signature = medicineRepository.findNameSignature();
+            if (signature.equals(index.signature)) {
+                return;
+            }
+            index = Index.build(medicineRepository.findAll(), signature);
+            log.info("[MedicineNameMatcher] 약품명 인덱스 구축 완료 (약품 {}건, 2-gram {}개)",
+                    index.entries.size(), index.postings.size());
+        } catch (Exception e) {
+            log.warn("[MedicineNameMatcher] 약품명 인덱스 구축 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 인덱스가 비어 있으면 바로 한 번 더 구축을 시도하고, 매칭에 쓸 수 있는지 반환
+     * (false면 호출 측은 전체 약품 목록으로 매칭해야 함)
+     */
+    public boolean ensureReady() {
+        if (index.entries.isEmpty()) {
+            refreshIfChanged();
+        }
+        return !index.entries.isEmpty();
+    }
+
+    /**
+     * OCR 약품명 하나를 매칭
+     * - 확정되면 getMdno() != null
+     * - 애매하면 getMdno() == null, getCandidates()에 점수순 상위 k개
+     */
+    public Match match(String ocrName) {
+        Index snapshot = index;
+        String query = normalizeKR(ocrName);
+        if (query.isEmpty() || snapshot.entries.isEmpty()) {
+            return new Match(null, List.of());
+        }
+
+        // 1. 정규화 이름이 정확히 같은 약품이 하나뿐이면 바로 확정
+        List<Entry> exact = snapshot.byNormalizedName.getOrDefault(query, List.of());
+        if (exact.size() == 1) {
+            return new Match(exact.get(0).mdno, List.of(new Candidate(exact.get(0).mdno, exact.get(0).name, 1.0)));
+        }
+
+        // 2. 자모 2-gram을 공유하는 약품만 후보로 (공유 개수 상위 CANDIDATE_POOL개)
+        String queryJamo = toJamo(query);
+        int[] hits = new int[snapshot.entries.size()];
+        for (String gram : grams(queryJamo)) {
+            int[] posting = snapshot.postings.get(gram);
+            if (posting == null) continue;
+            for (int i : posting) hits[i]++;
+        }
+        List<Integer> pool = new ArrayList<>();
+        for (int i = 0; i < hits.length; i++) {
+            if (hits[i] > 0) pool.add(i);
+        }
+        pool.sort((a, b) -> Integer.compare(hits[b], hits[a]));
+        if (pool.size() > CANDIDATE_POOL) {
+            pool = pool.subList(0, CANDIDATE_POOL);
+        }
+
+        // 3. 점수 계산 후 정렬
+        List<Candidate> scored = new ArrayList<>();
+        for (int i : pool) {
+            Entry e = snapshot.entries.get(i);
+            scored.add(new Candidate(e.mdno, e.name, score(query, queryJamo, e)));
+        }
+        scored.sort(Comparator.comparingDouble(Candidate::getScore).reversed());
+        List<Candidate> top = scored.size() > topK ? List.copyOf(scored.subList(0, topK)) : List.copyOf(scored);
+
+        if (!top.isEmpty()) {
+            double best = top.get(0).getScore();
+            double second = top.size() > 1 ? top.get(1).getScore() : 0.0;
+            if (best >= acceptScore && best - second >= margin) {
+                return new Match(top.get(0).getMdno(), top);
+            }
+        }
+        return new Match(null, top);
+    }
+
+    // 편집 거리 유사도와 부분 일치(OCR에서 잘린 이름 "슈가메트서방정5/100···") 중 큰 값
+    private double score(String query, String queryJamo, Entry e) {
+        double editSim = 1.0 - (double) levenshtein(queryJamo, e.jamo) / Math.max(queryJamo.length(), e.jamo.length());
+        double containSim = 0.0;
+        if (query.length() >= 3 && nameMatches(query, e.normalized)) {
+            int shorter = Math.min(query.length(), e.normalized.length());
+            int longer = Math.max(query.length(), e.normalized.length());
+            // 앞부분이 일치(잘린 이름)하는 경우를 더 높게
+            double base = e.normalized.startsWith(query) || query.startsWith(e.normalized) ? 0.9 : 0.8;
+            containSim = base + 0.1 * shorter / longer;
+        }
+        return Math.max(editSim, containSim);
+    }
+
+    //한글/영문/숫자만 남기고 공백·기호 제거, 정규화(NFKC), 소문자
+    public static String normalizeKR(String s) {
+        if (s == null) return "";
+        String n = Normalizer.normalize(s, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return n.replaceAll("[^\\p{IsLetter}\\p{IsDigit}]", "");
+    }
+
+    // 부분 일치 규칙: 정규화된 두 이름 중 하나가 다른 하나를 포함
+    public static boolean nameMatches(String medNameNorm, String otherRaw) {
+        if (otherRaw == null) return false;
+        String other = normalizeKR(otherRaw);
+        if (other.isEmpty() || medNameNorm.isEmpty()) return false;
+        return medNameNorm.contains(other) || other.contains(medNameNorm);
+    }
+
+    // 한글 음절을 초성/중성/종성 자모로 분해 (그 외 문자는 그대로)
+    static String toJamo(String s) {
+        StringBuilder sb = new StringBuilder(s.length() * 3);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0xAC00 && c <= 0xD7A3) {
+                int idx = c - 0xAC00;
+                sb.append((char) (0x1100 + idx / 588));
+                sb.append((char) (0x1161 + (idx % 588) / 28));
+                int jong = idx % 28;
+                if (jong > 0) sb.append((char) (0x11A7 + jong));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Set<String> grams(String jamo) {
+        Set<String> grams = new HashSet<>();
+        if (jamo.length() == 1) {
+            grams.add(jamo);
+        }
+        for (int i = 0; i + 2 <= jamo.length(); i++) {
+            grams.add(jamo.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] tmp = prev; prev = cur; cur = tmp;
+        }
+        return prev[b.length()];
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Match {
+        private final Long mdno;                  // 로컬 확정 시 mdno, 애매하면 null
+        private final List<Candidate> candidates; // 점수순 상위 후보
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Candidate {
+        private final Long mdno;
+        private final String name;
+        private final double score;
+    }
+
+    private static class Entry {
+        final Long mdno;
+        final String name;
+        final String normalized;
+        final String jamo;
+
+        Entry(MedicineEntity m) {
+            this.mdno = m.getMdno();
+            this.name = m.getName();
+            this.normalized = normalizeKR(m.getName());
+            this.jamo = toJamo(normalized);
+        }
+    }
+
+    // 구축 후에는 바꾸지 않음 (새로 만들어 통째로 교체)
+    private static class Index {
+        static final Index EMPTY = new Index(List.of(), Map.of(), Map.of(), null);
+
+        final List<Entry> entries;
+        final Map<String, int[]> postings;
+        final Map<String, List<Entry>> byNormalizedName;
+        final String signature;
+
+        Index(List<Entry> entries, Map<String, int[]> postings,
+              Map<String, List<Entry>> byNormalizedName, String signature) {
+            this.entries = entries;
+            this.postings = postings;
+            this.byNormalizedName = byNormalizedName;
+            this.signature = signature;
+        }
+
+        static Index build(List<MedicineEntity> medicines, String signature) {
+            List<Entry> entries = new ArrayList<>(medicines.size());
+            Map<String, List<Entry>> byName = new HashMap<>();
+            Map<String, List<Integer>> lists = new HashMap<>();
+
+            for (MedicineEntity m : medicines) {
+                Entry e = new Entry(m);
+                if (e.normalized.isEmpty()) continue;
+                int pos = entries.size();
+                entries.add(e);
+                byName.computeIfAbsent(e.normalized, k -> new ArrayList<>()).add(e);
+                for (String gram : grams(e.jamo)) {
+                    lists.computeIfAbsent(gram, k -> new ArrayList<>()).add(pos);
+                }
+            }
+
+            Map<String, int[]> postings = new HashMap<>(lists.size() * 2);
+            lists.forEach((gram, list) -> postings.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+            return new Index(entries, postings, byName, signature);
+        }
+    }
+}
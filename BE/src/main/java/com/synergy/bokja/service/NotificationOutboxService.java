@@ -0,0 +1,258 @@
+package com.synergy.bokja.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synergy.bokja.dto.fcm.PushMessage;
+import com.synergy.bokja.dto.fcm.PushSendResult;
+import com.synergy.bokja.entity.NotificationOutboxEntity;
+import com.synergy.bokja.repository.BatchInsertRepository;
+import com.synergy.bokja.repository.NotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 푸시 알림 transactional outbox (notification_outbox_table)
+ * - append(): 호출 측 트랜잭션(이벤트 생성) 안에서 PENDING 행으로 저장만 함 → FCM 지연이 생성 트랜잭션을 늘리지 않음
+ * - dispatch(): 주기적으로 PENDING 행을 500건씩 전송, 배치마다 짧은 트랜잭션 2번 + 그 사이 전송
+ *   · 가져가기: FOR UPDATE SKIP LOCKED로 잠가 IN_FLIGHT + 임대 만료 시각(available_at)으로 바꾸고 바로 커밋
+ *     → 같은 행을 두 디스패처가 보내지 않음
+ *   · 전송: 트랜잭션 밖에서 → FCM 왕복 동안 DB 커넥션을 잡고 있지 않음 (이벤트 생성과 커넥션 풀을 나눠 씀)
+ *   · 기록: 성공 → DELIVERED, 일시적 오류 → attempts + 1 후 PENDING으로 백오프만큼 뒤로 미룸, 재시도 초과/영구 오류 → FAILED
+ *   · 전송 후 기록 전에 프로세스가 죽으면 임대가 만료된 뒤 다른 디스패처가 다시 가져가 전송 (최소 1회 전달)
+ * - 처리 속도는 notification.outbox.rate-per-second로 제한
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    private static final int BATCH_SIZE = PushMessagingClient.MAX_BATCH_SIZE;
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final BatchInsertRepository batchInsertRepository;
+    private final FcmService fcmService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Qualifier("fcmExecutor")
+    private final Executor fcmExecutor;
+
+    @Value("${notification.outbox.dispatch-interval-ms:1000}")
+    private long dispatchIntervalMs;
+
+    // 초당 최대 전송 건수 (dispatch 1회당 rate-per-second * interval / 1000건)
+    @Value("${notification.outbox.rate-per-second:1000}")
+    private int ratePerSecond;
+
+    @Value("${notification.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${notification.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${notification.outbox.retention-days:7}")
+    private int retentionDays;
+
+    // 가져간(IN_FLIGHT) 배치의 임대 시간
+    @Value("${notification.outbox.in-flight-lease-ms:60000}")
+    private long inFlightLeaseMs;
+
+    /**
+     * 알림을 outbox에 저장 (호출 측 트랜잭션에 참여, JDBC batch)
+     * dedupe 키가 있는 알림은 같은 키가 이미 있으면 건너뜀
+     */
+    public void append(List<PushMessage> messages) {
+        append(messages, 0);
+    }
+
+    /**
+     * append()와 같지만 각 알림의 전송 가능 시각(available_at)을 [지금, 지금 + spreadMs) 사이로 무작위 분산
+     * (같은 시각에 몰리는 알림을 디스패처가 조금씩 나눠 보내도록)
+     */
+    public void append(List<PushMessage> messages, long spreadMs) {
+        if (messages.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutboxEntity> rows = new ArrayList<>(messages.size());
+        for (PushMessage m : messages) {
+            rows.add(NotificationOutboxEntity.builder()
+                    .uno(m.getUno())
+                    .token(m.getToken())
+                    .type(m.getData().getOrDefault("type", ""))
+                    .title(m.getTitle())
+                    .body(m.getBody())
+                    .dataJson(toJson(m.getData()))
+                    .status("PENDING")
+                    .attempts(0)
+                    .availableAt(spreadMs > 0
+                            ? now.plusNanos(ThreadLocalRandom.current().nextLong(spreadMs) * 1_000_000)
+                            : now)
+                    .createdAt(now)
+                    .dedupeKey(m.getDedupeKey())
+                    .build());
+        }
+        if (rows.stream().anyMatch(row -> row.getDedupeKey() != null)) {
+            batchInsertRepository.insertNotificationsIfAbsent(rows);
+        } else {
+            batchInsertRepository.insertNotifications(rows);
+        }
+    }
+
+    /**
+     * PENDING 알림 전송. 이번 회차 처리량(budget)을 500건 배치로 나눠 fcmExecutor에서 병렬 처리
+     * (각 배치는 자기 트랜잭션에서 SKIP LOCKED로 서로 다른 행을 가져감)
+     * 전용 스케줄러(outboxDispatchScheduler)에서 실행 → 다른 예약 작업과 서로 기다리지 않음
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.dispatch-interval-ms:1000}", scheduler = "outboxDispatchScheduler")
+    public void dispatch() {
+        long budget = Math.max(1, (long) ratePerSecond * dispatchIntervalMs / 1000);
+        int batches = (int) Math.min(Integer.MAX_VALUE, (budget + BATCH_SIZE - 1) / BATCH_SIZE);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < batches; i++) {
+            int limit = (int) Math.min(BATCH_SIZE, budget - (long) i * BATCH_SIZE);
+            futures.add(CompletableFuture.supplyAsync(() -> dispatchBatch(limit), fcmExecutor));
+        }
+
+        int sent = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            try {
+                sent += future.join();
+            } catch (Exception e) {
+                log.warn("[NotificationOutboxService] 알림 전송 배치 실패: {}", e.getMessage());
+            }
+        }
+        if (sent > 0) {
+            log.info("[NotificationOutboxService] 알림 {}건 처리", sent);
+        }
+    }
+
+    private int dispatchBatch(int limit) {
+        List<NotificationOutboxEntity> claimed = transactionTemplate.execute(status -> claim(limit));
+        if (claimed == null || claimed.isEmpty()) return 0;
+
+        // 트랜잭션 밖에서 전송
+        List<PushMessage> messages = claimed.stream().map(this::toMessage).toList();
+        List<PushSendResult> results = fcmService.sendBatch(messages);
+
+        transactionTemplate.executeWithoutResult(status -> record(claimed, results));
+        return claimed.size();
+    }
+
+    // 전송할 행을 잠가 IN_FLIGHT로 바꿈 (커밋하면 잠금이 풀려도 임대가 끝날 때까지 다른 디스패처가 가져가지 않음)
+    private List<NotificationOutboxEntity> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutboxEntity> rows = notificationOutboxRepository.lockPending(now, limit);
+        LocalDateTime leaseUntil = now.plusNanos(inFlightLeaseMs * 1_000_000);
+        for (NotificationOutboxEntity row : rows) {
+            row.setStatus("IN_FLIGHT");
+            row.setAvailableAt(leaseUntil);
+        }
+        return rows;
+    }
+
+    // 전송 결과 기록 (다시 읽어서 아직 IN_FLIGHT인 행만)
+    private void record(List<NotificationOutboxEntity> claimed, List<PushSendResult> results) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, NotificationOutboxEntity> current = new HashMap<>();
+        for (NotificationOutboxEntity row : notificationOutboxRepository.findAllById(
+                claimed.stream().map(NotificationOutboxEntity::getNono).toList())) {
+            current.put(row.getNono(), row);
+        }
+        for (int i = 0; i < claimed.size(); i++) {
+            NotificationOutboxEntity row = current.get(claimed.get(i).getNono());
+            if (row != null && "IN_FLIGHT".equals(row.getStatus())) {
+                apply(row, results.get(i), now);
+            }
+        }
+    }
+
+    private void apply(NotificationOutboxEntity row, PushSendResult result, LocalDateTime now) {
+        row.setAttempts(row.getAttempts() + 1);
+        switch (result.getStatus()) {
+            case SUCCESS -> {
+                row.setStatus("DELIVERED");
+                row.setDeliveredAt(now);
+                row.setLastError(null);
+            }
+            case TRANSIENT -> {
+                row.setLastError(truncate(result.getError()));
+                if (row.getAttempts() >= maxAttempts) {
+                    row.setStatus("FAILED");
+                } else {
+                    row.setStatus("PENDING");
+                    row.setAvailableAt(now.plusNanos(backoffMs(row.getAttempts()) * 1_000_000));
+                }
+            }
+            case UNREGISTERED, FAILED -> {
+                row.setStatus("FAILED");
+                row.setLastError(truncate(result.getError()));
+            }
+        }
+    }
+
+    // initial * 2^(attempts-1), 최대 max-backoff-ms, ±20% 지터
+    private long backoffMs(int attempts) {
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        long jitter = (long) (backoff * 0.2 * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        return Math.max(0, backoff + jitter);
+    }
+
+    /** 보관 기간이 지난 DELIVERED / FAILED 정리 (매일 04:40) */
+    @Scheduled(cron = "${notification.outbox.purge-cron:0 40 4 * * *}")
+    public void purgeFinished() {
+        int deleted = notificationOutboxRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("[NotificationOutboxService] 오래된 알림 outbox {}건 삭제", deleted);
+        }
+    }
+
+    private PushMessage toMessage(NotificationOutboxEntity row) {
+        return PushMessage.builder()
+                .uno(row.getUno())
+                .token(row.getToken())
+                .title(row.getTitle())
+                .body(row.getBody())
+                .data(fromJson(row.getDataJson()))
+                .build();
+    }
+
+    private String toJson(Map<String, String> data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("알림 페이로드를 JSON으로 변환할 수 없습니다.", e);
+        }
+    }
+
+    private Map<String, String> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, String>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("알림 페이로드를 읽을 수 없습니다.", e);
+        }
+    }
+
+    private static String truncate(String s) {
+        return s == null || s.length() <= 500 ? s : s.substring(0, 500);
+    }
+}
@@ -0,0 +1,22 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.dto.fcm.PushMessage;
+import com.synergy.bokja.dto.fcm.PushSendResult;
+
+import java.util.List;
+
+/**
+ * 푸시 전송 클라이언트
+ * - fcm.client=firebase(기본): FirebaseMessaging.sendEach
+ * - fcm.client=stub: 실제로 보내지 않는 로컬/테스트용
+ */
+public interface PushMessagingClient {
+
+    // FCM sendEach 한 번에 보낼 수 있는 최대 메시지 수
+    int MAX_BATCH_SIZE = 500;
+
+    /**
+     * messages(최대 MAX_BATCH_SIZE건)를 한 번에 전송하고, 입력과 같은 순서로 결과를 반환
+     */
+    List<PushSendResult> sendEach(List<PushMessage> messages);
+}
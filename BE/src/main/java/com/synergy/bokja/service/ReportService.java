@@ -3,17 +3,17 @@ package com.synergy.bokja.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.synergy.bokja.dto.*;
 import com.synergy.bokja.entity.*;
+import com.synergy.bokja.python.PythonScript;
+import com.synergy.bokja.python.PythonBridge;
 import com.synergy.bokja.repository.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,19 +28,15 @@ public class ReportService {
 
     private final ReportRepository reportRepository;
     private final UserMedicineRepository userMedicineRepository;
-    private final CycleRepository cycleRepository;
     private final UserMedicineItemRepository userMedicineItemRepository;
-    private final MedicineRepository medicineRepository;
     private final ConditionRepository conditionRepository;
-    private final EffectRepository effectRepository;
-    private final EventRepository eventRepository;
+    private final EffectDictionary effectDictionary;
+    private final DailyAdherenceRepository dailyAdherenceRepository;
     private final ObjectMapper objectMapper;
+    private final PythonBridge pythonBridge;
 
     private static final Logger log = LoggerFactory.getLogger(ReportService.class);
 
-    @Value("${python.script.llm}")
-    private String llmScriptPath;
-
     /**
      * uno → umno 조회 (기존 컨트롤러 호출용, "대표" 복약정보 1건만 반환)
      * 목록 조회는 getUserReports(umno) 내부에서 uno 기준 전체를 조회함.
@@ -69,23 +65,15 @@ public class ReportService {
     /** [1] 리포트 목록 조회 - 사용자 기준으로 모든 복약기록에 대한 리포트 조회 */
     public ReportListResponseDTO getUserReports(Long uno) {
 
-        // 1) 해당 사용자의 모든 복약 정보 조회
-        List<UserMedicineEntity> allMeds = userMedicineRepository.findAllByUser_Uno(uno);
-        if (allMeds == null || allMeds.isEmpty()) {
+        // 1) 사용자의 모든 리포트를 복약 정보 / 주기와 함께 한 번에 조회
+        List<ReportEntity> reports = reportRepository.findAllWithCycleByUno(uno);
+        if (reports.isEmpty() && !userMedicineRepository.existsByUser_Uno(uno)) {
             throw new IllegalArgumentException("사용자의 복약 정보가 존재하지 않습니다.");
         }
 
-        // 2) 모든 umno 리스트 추출
-        List<Long> umnos = allMeds.stream()
-                .map(UserMedicineEntity::getUmno)
-                .collect(Collectors.toList());
-
-        // 3) 이 umno들에 속한 모든 리포트 조회
-        List<ReportEntity> reports = reportRepository.findAllByUserMedicine_UmnoIn(umnos);
-
-        // 4) DTO 변환
+        // 2) DTO 변환 (추가 조회 없음)
         List<ReportItemDTO> reportList = reports.stream().map(r -> {
-            CycleEntity cycle = cycleRepository.findByCyno(r.getCycle().getCyno());
+            CycleEntity cycle = r.getCycle();
             UserMedicineEntity med = r.getUserMedicine();
 
             return new ReportItemDTO(
@@ -103,6 +91,7 @@ public class ReportService {
     /**
      * [2] 리포트 요약 조회
      * - event_table의 createdAt / updatedAt 기반으로 날짜별 g/y/r 계산
+     * - 건수는 일별 복약 집계(daily_adherence_table)에서 읽고, 색상은 날짜 수만큼만 반복
      *
      * 규칙:
      * - (createdCount == 0 인 경우는 적색으로 보지 않음. 알림이 없어서 평가 불가인 날로 취급)
@@ -113,7 +102,7 @@ public class ReportService {
     public ReportSummaryResponseDTO getReportSummary(Long rno) {
         Long currentUno = getCurrentUserUno();
 
-        ReportEntity report = reportRepository.findByRno(rno)
+        ReportEntity report = reportRepository.findWithCycleByRno(rno)
                 .orElseThrow(() -> new IllegalArgumentException("리포트가 존재하지 않습니다."));
 
         Long ownerUno = report.getUserMedicine().getUser().getUno();
@@ -121,43 +110,26 @@ public class ReportService {
             throw new AccessDeniedException("해당 리포트에 접근할 권한이 없습니다.");
         }
 
-        UserMedicineEntity med = userMedicineRepository.findByUmno(report.getUserMedicine().getUmno());
-        CycleEntity cycle = cycleRepository.findByCyno(report.getCycle().getCyno());
+        UserMedicineEntity med = report.getUserMedicine();
+        CycleEntity cycle = report.getCycle();
 
         LocalDate startDate = cycle.getStartDate();
         LocalDate endDate = cycle.getEndDate();
         String start = startDate.toString();
         String end = endDate.toString();
 
-        // 이 복약 정보(umno)에 해당하는 모든 event 조회
-        List<EventEntity> allEventsForMed = eventRepository.findAllByUserMedicine_UmnoIn(
-                Collections.singletonList(med.getUmno())
-        );
+        // 날짜별 (발행 / 같은 날 완료) 건수는 일별 집계 테이블에서 (주기 일수만큼의 작은 행)
+        Map<LocalDate, DailyAdherenceEntity> adherenceByDate = loadAdherence(med.getUmno(), startDate, endDate).stream()
+                .collect(Collectors.toMap(DailyAdherenceEntity::getAdherenceDate, a -> a));
 
         List<ColorDTO> colors = new ArrayList<>();
 
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            LocalDate target = date;
-
-            // createdAt 이 해당 날짜인 이벤트들
-            List<EventEntity> dailyEvents = allEventsForMed.stream()
-                    .filter(ev -> {
-                        LocalDateTime created = ev.getCreatedAt();
-                        if (created == null) return false;
-                        return created.toLocalDate().equals(target);
-                    })
-                    .collect(Collectors.toList());
-
-            long createdCount = dailyEvents.size();
-
-            // updatedAt 이 해당 날짜인 이벤트들
-            long updatedCount = dailyEvents.stream()
-                    .filter(ev -> {
-                        LocalDateTime updated = ev.getUpdatedAt();
-                        if (updated == null) return false;
-                        return updated.toLocalDate().equals(target);
-                    })
-                    .count();
+            DailyAdherenceEntity adherence = adherenceByDate.get(date);
+
+            long createdCount = adherence != null ? adherence.getIssuedCount() : 0;
+            long updatedCount = adherence != null ? adherence.getCompletedCount() : 0;
+
             /**
              * 규칙:
              * - createdCount == 0  → colors에 추가하지 않음 (색상 없음)
@@ -209,7 +181,7 @@ public class ReportService {
     public ReportDetailResponseDTO getReportDetail(Long rno) {
         Long currentUno = getCurrentUserUno();
 
-        ReportEntity report = reportRepository.findByRno(rno)
+        ReportEntity report = reportRepository.findWithCycleByRno(rno)
                 .orElseThrow(() -> new IllegalArgumentException("리포트가 존재하지 않습니다."));
 
         Long ownerUno = report.getUserMedicine().getUser().getUno();
@@ -217,14 +189,14 @@ public class ReportService {
             throw new AccessDeniedException("해당 리포트에 접근할 권한이 없습니다.");
         }
 
-        UserMedicineEntity userMedicine = userMedicineRepository.findByUmno(report.getUserMedicine().getUmno());
-        CycleEntity cycle = cycleRepository.findByCyno(report.getCycle().getCyno());
+        UserMedicineEntity userMedicine = report.getUserMedicine();
+        CycleEntity cycle = report.getCycle();
         List<UserMedicineItemEntity> items =
-                userMedicineItemRepository.findAllByUserMedicine_Umno(report.getUserMedicine().getUmno());
+                userMedicineItemRepository.findAllWithMedicineByUmno(userMedicine.getUmno());
 
-        // 약품 상세 정보
+        // 약품 상세 정보 (약품은 위 조회에서 함께 읽음)
         List<MedicineDTO> medicineList = items.stream().map(i -> {
-            MedicineEntity med = medicineRepository.findByMdno(i.getMedicine().getMdno());
+            MedicineEntity med = i.getMedicine();
             return new MedicineDTO(
                     med.getMdno(),
                     med.getName(),
@@ -304,95 +276,41 @@ public class ReportService {
         );
     }
 
-    /** 주차별 부작용 통계 생성 (ConditionEntity.time: LocalDateTime 기반) */
+    /**
+     * 주차별 부작용 통계 생성 (ConditionEntity.time: LocalDateTime 기반)
+     * - 주기 전체를 (주차, 부작용)별 GROUP BY 쿼리 1번으로 집계, 이름은 EffectDictionary에서
+     * - 기록이 없는 주차도 빈 리스트로 포함
+     */
     private List<ReportEffectWeekDTO> buildWeeklyEffectStats(Long uno, LocalDate startDate, LocalDate endDate) {
         List<ReportEffectWeekDTO> result = new ArrayList<>();
+        if (endDate.isBefore(startDate)) {
+            return result;
+        }
 
-        LocalDate start = startDate;
-        LocalDate end = endDate;
-
-        int weekIndex = 1;
-        for (LocalDate wStart = start; !wStart.isAfter(end); wStart = wStart.plusWeeks(1)) {
-            LocalDate wEnd = wStart.plusDays(6);
-            if (wEnd.isAfter(end)) {
-                wEnd = end;
-            }
-
-            LocalDateTime startDateTime = wStart.atStartOfDay();
-            LocalDateTime endDateTime = wEnd.atTime(LocalTime.MAX);
-
-            List<ConditionEntity> weekConditions =
-                    conditionRepository.findAllByUser_UnoAndTimeBetween(
-                            uno,
-                            startDateTime,
-                            endDateTime
-                    );
-
-            Map<Long, Long> counts = weekConditions.stream()
-                    .collect(Collectors.groupingBy(
-                            condition -> condition.getEffect().getEfno(),
-                            Collectors.counting()
+        Map<Integer, List<ReportEffectItemDTO>> effectsByWeek = new HashMap<>();
+        for (ConditionRepository.WeeklyEffectCount row : conditionRepository.countWeeklyEffects(
+                uno, startDate, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())) {
+            effectsByWeek.computeIfAbsent(row.getWeek().intValue(), w -> new ArrayList<>())
+                    .add(new ReportEffectItemDTO(
+                            row.getEfno(),
+                            effectDictionary.nameOf(row.getEfno()),
+                            row.getCnt().intValue()
                     ));
+        }
 
-            List<ReportEffectItemDTO> weekEffects = counts.entrySet().stream().map(e -> {
-                EffectEntity effect = effectRepository.findByEfno(e.getKey());
-                return new ReportEffectItemDTO(
-                        effect.getEfno(),
-                        effect.getName(),
-                        e.getValue().intValue()
-                );
-            }).collect(Collectors.toList());
-
-            result.add(new ReportEffectWeekDTO(weekIndex++, weekEffects));
+        long weeks = ChronoUnit.DAYS.between(startDate, endDate) / 7 + 1;
+        for (int week = 0; week < weeks; week++) {
+            List<ReportEffectItemDTO> weekEffects = effectsByWeek.getOrDefault(week, new ArrayList<>());
+            weekEffects.sort(Comparator.comparing(ReportEffectItemDTO::getEfno));
+            result.add(new ReportEffectWeekDTO(week + 1, weekEffects));
         }
 
         return result;
     }
 
-    /** Python 스크립트 실행 (디버깅 로그 추가 버전) */
-    private String runPythonScript(String scriptPath, String... args)
-            throws IOException, InterruptedException {
-
-        List<String> command = new ArrayList<>();
-
-        String osName = System.getProperty("os.name").toLowerCase();
-        String pythonCmd = osName.contains("win") ? "python" : "python3";
-
-        command.add(pythonCmd);
-        command.add(scriptPath);
-        command.addAll(Arrays.asList(args));
-
-        ProcessBuilder pb = new ProcessBuilder(command);
-
-        Map<String, String> env = pb.environment();
-        env.put("PYTHONIOENCODING", "UTF-8");
-
-        Process process = pb.start();
-
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader =
-                     new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line);
-            }
-        }
-
-        int exitCode = process.waitFor();
-        String stdout = output.toString();
-
-        if (exitCode != 0) {
-            try (BufferedReader errorReader =
-                         new BufferedReader(new InputStreamReader(process.getErrorStream(), "UTF-8"))) {
-                String errorOutput = errorReader.lines().collect(Collectors.joining("\n"));
-                log.error("[LLM] Python stderr = {}", errorOutput);
-                throw new RuntimeException(
-                        "Python script exited with code " + exitCode + ". Error: " + errorOutput
-                );
-            }
-        }
-
-        return stdout;
+    /** 주기 기간의 일별 복약 집계 (날짜순) */
+    private List<DailyAdherenceEntity> loadAdherence(Long umno, LocalDate startDate, LocalDate endDate) {
+        return dailyAdherenceRepository.findAllByUmnoAndAdherenceDateBetweenOrderByAdherenceDate(umno, startDate, endDate);
     }
 
     /** LLM을 이용해 리포트 설명(총평) 생성 */
@@ -412,11 +330,16 @@ public class ReportService {
         payload.put("save_cycle", cycle.getSaveCycle());
         payload.put("effects", effects);
 
+        // 복약 순응도: 일별 집계 합계 (발행 / 같은 날 완료)
+        List<DailyAdherenceEntity> adherence = loadAdherence(userMedicine.getUmno(), cycle.getStartDate(), cycle.getEndDate());
+        payload.put("issued_count", adherence.stream().mapToInt(DailyAdherenceEntity::getIssuedCount).sum());
+        payload.put("completed_count", adherence.stream().mapToInt(DailyAdherenceEntity::getCompletedCount).sum());
+
         String json = objectMapper.writeValueAsString(payload);
 
         // Python 실행
-        String llmResult = runPythonScript(
-                llmScriptPath,
+        String llmResult = pythonBridge.run(
+                PythonScript.LLM,
                 "report_summary",
                 json
         );
@@ -0,0 +1,52 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.dto.fcm.PushMessage;
+import com.synergy.bokja.dto.fcm.PushSendResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 로컬/테스트용 푸시 클라이언트 (fcm.client=stub): 실제로 보내지 않고 로그만 남김
+ * 토큰 접두어로 실패를 흉내낼 수 있음
+ * - "unregistered:" → UNREGISTERED (토큰 삭제 확인용)
+ * - "unavailable:"  → TRANSIENT (재시도 확인용)
+ * - "invalid:"      → FAILED
+ */
+@Component
+@ConditionalOnProperty(name = "fcm.client", havingValue = "stub")
+public class StubPushMessagingClient implements PushMessagingClient {
+
+    private static final Logger log = LoggerFactory.getLogger(StubPushMessagingClient.class);
+
+    private final AtomicLong sentCount = new AtomicLong();
+
+    @Override
+    public List<PushSendResult> sendEach(List<PushMessage> messages) {
+        List<PushSendResult> results = new ArrayList<>(messages.size());
+        for (PushMessage m : messages) {
+            String token = m.getToken() == null ? "" : m.getToken();
+            if (token.startsWith("unregistered:")) {
+                results.add(new PushSendResult(PushSendResult.Status.UNREGISTERED, "stub unregistered"));
+            } else if (token.startsWith("unavailable:")) {
+                results.add(new PushSendResult(PushSendResult.Status.TRANSIENT, "stub unavailable"));
+            } else if (token.startsWith("invalid:")) {
+                results.add(new PushSendResult(PushSendResult.Status.FAILED, "stub invalid"));
+            } else {
+                results.add(PushSendResult.success());
+                sentCount.incrementAndGet();
+            }
+        }
+        log.info("[StubPushMessagingClient] {}건 전송 요청 (누적 성공 {}건)", messages.size(), sentCount.get());
+        return results;
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+}
@@ -0,0 +1,222 @@
+package com.synergy.bokja.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * TTS 오디오 캐시 (내용 주소 방식: 텍스트 + 음성 파라미터의 SHA-256 해시가 키)
+ * - 1단계: 메모리 LRU (바이트 크기 기준 상한)
+ * - 2단계: 디스크 저장소 (tts.cache.dir, 전체 크기 상한 초과 시 오래 안 쓴 파일부터 삭제)
+ */
+@Component
+public class TtsAudioCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TtsAudioCache.class);
+    private static final String FILE_SUFFIX = ".audio";
+
+    @Value("${tts.cache.dir:tts-cache/}")
+    private String cacheDir;
+
+    @Value("${tts.cache.memory-max-bytes:33554432}")
+    private long memoryMaxBytes;
+
+    @Value("${tts.cache.disk-max-bytes:1073741824}")
+    private long diskMaxBytes;
+
+    // accessOrder=true → 조회할 때마다 맨 뒤로 이동 (LRU)
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes = 0;
+
+    private Path diskRoot;
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    @PostConstruct
+    public void init() throws IOException {
+        diskRoot = Paths.get(cacheDir);
+        Files.createDirectories(diskRoot);
+        try (Stream<Path> files = Files.list(diskRoot)) {
+            diskBytes.set(files.filter(p -> p.toString().endsWith(FILE_SUFFIX))
+                    .mapToLong(this::sizeOf)
+                    .sum());
+        }
+    }
+
+    /** (text, language, voice, encoding, speaking_rate, pitch) → 64자리 hex 키 */
+    public String keyOf(String text, String languageCode, String voiceName, String audioEncoding,
+                        double speakingRate, double pitch) {
+        String material = String.join("\u0000",
+                text, languageCode, voiceName, audioEncoding,
+                Double.toString(speakingRate), Double.toString(pitch));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 메모리 → 디스크 순으로 조회. 디스크에서 찾으면 메모리로 승격 */
+    public byte[] get(String key) {
+        if (!isValidKey(key)) {
+            return null;
+        }
+
+        synchronized (memory) {
+            byte[] hit = memory.get(key);
+            if (hit != null) return hit;
+        }
+
+        Path file = fileOf(key);
+        try {
+            byte[] audio = Files.readAllBytes(file);
+            // 최근 사용 시각 갱신 (디스크 LRU 판단용)
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            putMemory(key, audio);
+            return audio;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("[TtsAudioCache] 디스크 캐시 읽기 실패 key={}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * /audio/{hash} 응답용: 메모리에 있으면 ByteArrayResource, 디스크에만 있으면 FileSystemResource
+     * (디스크 파일은 힙에 올리지 않고 그대로 스트리밍, Range 요청도 파일 위치로 처리됨)
+     */
+    public Resource getResource(String key) {
+        if (!isValidKey(key)) {
+            return null;
+        }
+
+        synchronized (memory) {
+            byte[] hit = memory.get(key);
+            if (hit != null) return new ByteArrayResource(hit);
+        }
+
+        Path file = fileOf(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+        }
+        return new FileSystemResource(file);
+    }
+
+    public void put(String key, byte[] audio) {
+        if (!isValidKey(key) || audio == null || audio.length == 0) {
+            return;
+        }
+        putMemory(key, audio);
+        putDisk(key, audio);
+    }
+
+    private void putMemory(String key, byte[] audio) {
+        if (audio.length > memoryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            byte[] previous = memory.put(key, audio);
+            if (previous != null) memoryBytes -= previous.length;
+            memoryBytes += audio.length;
+
+            Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && it.hasNext()) {
+                memoryBytes -= it.next().getValue().length;
+                it.remove();
+            }
+        }
+    }
+
+    private void putDisk(String key, byte[] audio) {
+        Path file = fileOf(key);
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            // 임시 파일에 쓴 뒤 이동 → 읽는 쪽에서 반쯤 쓰인 파일을 보지 않도록
+            Path tmp = Files.createTempFile(diskRoot, key, ".tmp");
+            Files.write(tmp, audio);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            if (diskBytes.addAndGet(audio.length) > diskMaxBytes) {
+                evictDisk();
+            }
+        } catch (IOException e) {
+            log.warn("[TtsAudioCache] 디스크 캐시 쓰기 실패 key={}: {}", key, e.getMessage());
+        }
+    }
+
+    /** 오래 안 쓴 파일부터 지워서 상한의 90% 이하로 맞춤 */
+    private synchronized void evictDisk() {
+        long target = diskMaxBytes * 9 / 10;
+        if (diskBytes.get() <= target) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(diskRoot)) {
+            files = stream.filter(p -> p.toString().endsWith(FILE_SUFFIX))
+                    .sorted(Comparator.comparingLong(this::lastModifiedOf))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("[TtsAudioCache] 디스크 캐시 정리 실패: {}", e.getMessage());
+            return;
+        }
+
+        for (Path file : files) {
+            if (diskBytes.get() <= target) break;
+            long size = sizeOf(file);
+            try {
+                if (Files.deleteIfExists(file)) {
+                    diskBytes.addAndGet(-size);
+                }
+            } catch (IOException e) {
+                log.warn("[TtsAudioCache] 캐시 파일 삭제 실패 {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private Path fileOf(String key) {
+        return diskRoot.resolve(key + FILE_SUFFIX);
+    }
+
+    // 키는 항상 SHA-256 hex → 경로 조작 방지를 위해 형식 검증
+    private boolean isValidKey(String key) {
+        return key != null && key.length() == 64 && key.chars().allMatch(c -> Character.digit(c, 16) >= 0);
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private long lastModifiedOf(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -2,21 +2,20 @@ package com.synergy.bokja.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.synergy.bokja.entity.DescriptionEntity;
+import com.synergy.bokja.python.PythonScript;
+import com.synergy.bokja.python.PythonBridge;
 import com.synergy.bokja.repository.DescriptionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.Base64;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.*;
 
 @Service
 @RequiredArgsConstructor
@@ -24,9 +23,36 @@ public class TtsService {
 
     private final DescriptionRepository descriptionRepository;
     private final ObjectMapper objectMapper;
+    private final PythonBridge pythonBridge;
+    private final TtsAudioCache ttsAudioCache;
 
-    @Value("${python.script.tts}")
-    private String ttsScriptPath;
+    @Qualifier("ttsExecutor")
+    private final Executor ttsExecutor;
+
+    @Value("${tts.language-code:ko-KR}")
+    private String languageCode;
+
+    @Value("${tts.voice-name:ko-KR-Neural2-C}")
+    private String voiceName;
+
+    @Value("${tts.audio-encoding:MP3}")
+    private String audioEncoding;
+
+    @Value("${tts.speaking-rate:0.95}")
+    private double speakingRate;
+
+    @Value("${tts.pitch:0.0}")
+    private double pitch;
+
+    // 오디오 URL 앞에 붙일 주소 (비어 있으면 /audio/{hash} 상대 경로)
+    @Value("${tts.audio.base-url:}")
+    private String audioBaseUrl;
+
+    @Value("${tts.fanout.deadline-ms:8000}")
+    private long fanoutDeadlineMs;
+
+    // 합성 중인 키 → 결과 (동일 텍스트 동시 요청 시 중복 합성 방지)
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
 
     /**
      * DB에서 description을 조회하여 TTS로 변환합니다.
@@ -51,54 +77,30 @@ public class TtsService {
             throw new IllegalArgumentException("description이 비어있습니다.");
         }
 
-        // 2. Python TTS 스크립트 호출
+        // 2. TTS 변환 (캐시 우선)
         try {
-            String ttsResult = runPythonScript(ttsScriptPath, "tts", text);
-            
-            // 3. JSON 파싱
-            @SuppressWarnings("unchecked")
-            Map<String, Object> resultMap = objectMapper.readValue(ttsResult, Map.class);
-            String audioBase64 = (String) resultMap.get("audio_base64");
-            
-            if (audioBase64 == null) {
-                throw new RuntimeException("TTS 스크립트가 audio_base64를 반환하지 않았습니다.");
-            }
-            
-            // 4. Base64 디코딩하여 byte 배열로 반환
-            return Base64.getDecoder().decode(audioBase64);
-            
+            return synthesize(text);
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException("TTS 생성 중 오류 발생: " + e.getMessage(), e);
         }
     }
 
     /**
-     * 텍스트를 직접 받아서 TTS로 변환하고 Base64 인코딩된 문자열을 반환합니다.
-     * (skycastle 프로젝트 참고: 파일 저장 없이 Base64로 직접 반환)
-     * 
+     * 텍스트를 TTS로 변환(캐시에 없을 때만)하고, 오디오를 받을 수 있는 URL을 반환합니다.
+     * - 응답 JSON에 Base64를 싣지 않고, 클라이언트가 필요할 때 GET /audio/{hash}로 받아감
+     *
      * @param text TTS로 변환할 텍스트
-     * @return Base64 인코딩된 오디오 데이터 문자열
+     * @return 오디오 URL (예: /audio/3f2a...), 실패 시 null
      */
-    public String generateTtsFromText(String text) {
+    public String generateTtsUrl(String text) {
         if (text == null || text.trim().isEmpty()) {
             return null;
         }
 
         try {
-            String ttsResult = runPythonScript(ttsScriptPath, "tts", text);
-            
-            // JSON 파싱
-            @SuppressWarnings("unchecked")
-            Map<String, Object> resultMap = objectMapper.readValue(ttsResult, Map.class);
-            String audioBase64 = (String) resultMap.get("audio_base64");
-            
-            if (audioBase64 == null) {
-                return null;
-            }
-            
-            // Base64 문자열 그대로 반환 (파일 저장 없음)
-            return audioBase64;
-            
+            synthesize(text);
+            return audioBaseUrl + "/audio/" + audioKeyOf(text);
+
         } catch (IOException | InterruptedException e) {
             return null;
         } catch (Exception e) {
@@ -107,53 +109,110 @@ public class TtsService {
     }
 
     /**
-     * Python 스크립트를 실행하고 그 결과를 String(JSON)으로 반환
-     * (MedicationService2의 runPythonScript 메서드와 동일한 구조)
+     * 여러 텍스트의 TTS를 ttsExecutor에서 병렬로 생성하고 텍스트 → 오디오 URL 맵을 반환합니다.
+     * - 전체 대기 시간은 tts.fanout.deadline-ms로 제한 (응답 지연 = 가장 느린 1건, 합계 아님)
+     * - 기한 안에 끝나지 않은 텍스트는 URL이 null (합성은 계속 진행되어 다음 조회 때 캐시에서 바로 나감)
      */
-    private String runPythonScript(String scriptPath, String... args) throws IOException, InterruptedException {
-        // 1. 명령어 리스트 생성 ("python3", "script.py", "arg1", "arg2")
-        List<String> command = new java.util.ArrayList<>();
-        
-        // Windows 환경 고려: python 먼저 시도, 없으면 python3
-        String pythonCommand = System.getProperty("os.name").toLowerCase().contains("win") ? "python" : "python3";
-        command.add(pythonCommand);
-        
-        // 스크립트 경로를 절대 경로로 변환 (상대 경로 문제 해결)
-        java.io.File scriptFile = new java.io.File(scriptPath);
-        if (!scriptFile.isAbsolute()) {
-            // 상대 경로인 경우 프로젝트 루트 기준으로 변환
-            String projectRoot = System.getProperty("user.dir");
-            scriptFile = new java.io.File(projectRoot, scriptPath);
+    public Map<String, String> generateTtsUrls(Collection<String> texts) {
+        Map<String, CompletableFuture<String>> futures = new LinkedHashMap<>();
+        for (String text : texts) {
+            if (text == null || text.trim().isEmpty() || futures.containsKey(text)) continue;
+            try {
+                futures.put(text, CompletableFuture.supplyAsync(() -> generateTtsUrl(text), ttsExecutor));
+            } catch (RejectedExecutionException e) {
+                futures.put(text, CompletableFuture.completedFuture(null));
+            }
         }
-        command.add(scriptFile.getAbsolutePath());
-        
-        command.addAll(Arrays.asList(args));
-
-        // 2. 프로세스 빌더 생성 및 시작
-        ProcessBuilder pb = new ProcessBuilder(command);
-        Process process = pb.start();
-
-        // 3. Python의 print() 결과 (stdout) 읽기
-        StringBuilder output = new StringBuilder();
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            output.append(line);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fanoutDeadlineMs);
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture<?>[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // 기한 초과/개별 실패 → 끝난 것만 사용
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Map<String, String> urls = new HashMap<>();
+        futures.forEach((text, future) -> urls.put(text, future.getNow(null)));
+        return urls;
+    }
+
+    /**
+     * GET /audio/{hash} 용: 캐시된 오디오 (없으면 null)
+     */
+    public Resource getCachedAudio(String hash) {
+        return ttsAudioCache.getResource(hash);
+    }
+
+    /** 현재 인코딩 설정에 맞는 Content-Type */
+    public MediaType getAudioMediaType() {
+        return "LINEAR16".equalsIgnoreCase(audioEncoding)
+                ? MediaType.parseMediaType("audio/wav")
+                : MediaType.parseMediaType("audio/mpeg");
+    }
+
+    /**
+     * 텍스트 → 오디오 bytes
+     * - (text, 음성 파라미터) 해시로 캐시 조회, 없을 때만 Python TTS 호출 후 캐시에 저장
+     * - 같은 텍스트를 동시에 요청하면 한 번만 합성하고 결과를 공유
+     */
+    private byte[] synthesize(String text) throws IOException, InterruptedException {
+        String key = audioKeyOf(text);
+
+        byte[] cached = ttsAudioCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
         }
 
-        // 4. 프로세스 종료 대기
-        int exitCode = process.waitFor();
+        try {
+            byte[] audio = callTtsScript(text);
+            ttsAudioCache.put(key, audio);
+            mine.complete(audio);
+            return audio;
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private String audioKeyOf(String text) {
+        return ttsAudioCache.keyOf(text, languageCode, voiceName, audioEncoding, speakingRate, pitch);
+    }
+
+    private byte[] callTtsScript(String text) throws IOException, InterruptedException {
+        String ttsResult = pythonBridge.run(PythonScript.TTS, "tts", text,
+                languageCode, voiceName, audioEncoding,
+                String.valueOf(speakingRate), String.valueOf(pitch));
 
-        // 5. 에러 처리 (Python 스크립트에서 에러가 났는지 확인)
-        if (exitCode != 0) {
-            BufferedReader errorReader = new BufferedReader(
-                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8));
-            String errorOutput = errorReader.lines().collect(Collectors.joining("\n"));
-            throw new RuntimeException("Python script exited with code " + exitCode + ". Error: " + errorOutput);
+        // JSON 파싱
+        @SuppressWarnings("unchecked")
+        Map<String, Object> resultMap = objectMapper.readValue(ttsResult, Map.class);
+        String audioBase64 = (String) resultMap.get("audio_base64");
+
+        if (audioBase64 == null) {
+            throw new RuntimeException("TTS 스크립트가 audio_base64를 반환하지 않았습니다.");
         }
+        return Base64.getDecoder().decode(audioBase64);
+    }
 
-        return output.toString();
+    private byte[] await(CompletableFuture<byte[]> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException("TTS 생성 중 오류 발생", cause);
+        }
     }
 }
-
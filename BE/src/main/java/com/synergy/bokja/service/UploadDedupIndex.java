@@ -0,0 +1,205 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.dto.ocr.ParsedPrescriptionData;
+import com.synergy.bokja.entity.MedicationUploadJobEntity;
+import com.synergy.bokja.repository.MedicationUploadJobRepository;
+import com.synergy.bokja.repository.UploadIdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 같은 이미지 재업로드(다시 찍기, 타임아웃 후 재시도) 감지
+ * - 사용자별로 (모드, 이미지 SHA-256) → window-ms 안에 등록된 업로드 작업 (medication_upload_job_table)
+ * - 선택: perceptual hash(dHash, 64bit)로 해밍 거리 이내의 "거의 같은" 이미지도 같은 이미지로 취급 (디코딩 비용 때문에 기본 꺼짐)
+ * - Idempotency-Key 헤더 → 작업 ID (upload_idempotency_key_table, (uno, 키) 유니크)
+ * - 작업/키가 테이블에 있으므로 재시도가 다른 인스턴스로 가도 같은 작업을 돌려줌
+ * - OCR 파싱 결과만 이 인스턴스 메모리에 window 동안 보관 (다른 인스턴스로 간 재업로드는 OCR부터 다시)
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadDedupIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadDedupIndex.class);
+
+    private final MedicationUploadJobRepository medicationUploadJobRepository;
+    private final UploadIdempotencyKeyRepository uploadIdempotencyKeyRepository;
+
+    @Value("${medication.upload.dedup.window-ms:600000}")
+    private long windowMs;
+
+    @Value("${medication.upload.dedup.perceptual-enabled:false}")
+    private boolean perceptualEnabled;
+
+    // dHash 해밍 거리가 이 값 이하이면 같은 이미지로 취급
+    @Value("${medication.upload.dedup.perceptual-max-distance:4}")
+    private int perceptualMaxDistance;
+
+    // 작업 ID → OCR 파싱 결과 (이 인스턴스에서 실행한 작업만)
+    private final Map<String, CachedParse> parsedData = new ConcurrentHashMap<>();
+
+    /** 업로드 이미지의 지문 계산 (SHA-256 + 선택적으로 dHash) */
+    public Fingerprint fingerprint(Long uno, String mode, byte[] image) {
+        return new Fingerprint(uno, mode, sha256(image), perceptualEnabled ? dHash(image) : null);
+    }
+
+    /** window 안에 같은(또는 거의 같은) 이미지로 등록된 가장 최근 작업 ID (모든 인스턴스 기준) */
+    public String findDuplicateJobId(Fingerprint fp) {
+        LocalDateTime since = windowStart();
+        Optional<MedicationUploadJobEntity> exact = medicationUploadJobRepository
+                .findFirstByUnoAndModeAndImageSha256AndCreatedAtAfterOrderByCreatedAtDesc(fp.uno, fp.mode, fp.sha256, since);
+        if (exact.isPresent()) {
+            return exact.get().getJobId();
+        }
+        if (fp.dHash == null) {
+            return null;
+        }
+        return medicationUploadJobRepository.findAllByUnoAndModeAndImageDhashIsNotNullAndCreatedAtAfter(fp.uno, fp.mode, since)
+                .stream()
+                .filter(job -> Long.bitCount(job.getImageDhash() ^ fp.dHash) <= perceptualMaxDistance)
+                .max(Comparator.comparing(MedicationUploadJobEntity::getCreatedAt))
+                .map(MedicationUploadJobEntity::getJobId)
+                .orElse(null);
+    }
+
+    /** 이 인스턴스에 남아 있는 해당 작업의 OCR 파싱 결과 (없으면 null) */
+    public ParsedPrescriptionData findParsedData(String jobId) {
+        CachedParse cached = parsedData.get(jobId);
+        return cached == null || cached.isExpired(System.currentTimeMillis(), windowMs) ? null : cached.data;
+    }
+
+    public void rememberParsedData(String jobId, ParsedPrescriptionData data) {
+        parsedData.put(jobId, new CachedParse(data, System.currentTimeMillis()));
+    }
+
+    public String findJobIdByIdempotencyKey(Long uno, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return null;
+        return uploadIdempotencyKeyRepository.findJobId(uno, checked(idempotencyKey), windowStart()).orElse(null);
+    }
+
+    /**
+     * Idempotency-Key를 작업에 연결하고, 실제로 키를 가진 작업 ID 반환
+     * (같은 키로 다른 요청이 먼저 연결했으면 그 작업 ID, 키가 없으면 jobId 그대로)
+     */
+    public String claimIdempotencyKey(Long uno, String idempotencyKey, String jobId) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return jobId;
+        String key = checked(idempotencyKey);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = windowStart();
+        uploadIdempotencyKeyRepository.claim(uno, key, jobId, now, since);
+        return uploadIdempotencyKeyRepository.findJobId(uno, key, since).orElse(jobId);
+    }
+
+    /** 작업을 만들지 못했을 때 키 연결 해제 */
+    public void releaseIdempotencyKey(Long uno, String idempotencyKey, String jobId) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return;
+        uploadIdempotencyKeyRepository.release(uno, checked(idempotencyKey), jobId);
+    }
+
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        parsedData.values().removeIf(cached -> cached.isExpired(now, windowMs));
+        try {
+            uploadIdempotencyKeyRepository.deleteExpired(windowStart());
+        } catch (Exception e) {
+            log.warn("[UploadDedupIndex] 만료된 Idempotency-Key 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDateTime.now().minusNanos(windowMs * 1_000_000);
+    }
+
+    private static String checked(String idempotencyKey) {
+        if (idempotencyKey.length() > 255) {
+            throw new IllegalArgumentException("Idempotency-Key는 255자 이하여야 합니다.");
+        }
+        return idempotencyKey;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // dHash: 9x8 흑백으로 줄인 뒤 가로로 이웃한 픽셀 밝기 비교 → 64bit. 디코딩 실패 시 null
+    private static Long dHash(byte[] image) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(image));
+            if (source == null) return null;
+
+            BufferedImage small = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = small.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, 9, 8, null);
+            g.dispose();
+
+            long hash = 0;
+            for (int y = 0; y < 8; y++) {
+                for (int x = 0; x < 8; x++) {
+                    int left = small.getRaster().getSample(x, y, 0);
+                    int right = small.getRaster().getSample(x + 1, y, 0);
+                    hash = (hash << 1) | (left > right ? 1 : 0);
+                }
+            }
+            return hash;
+        } catch (Exception e) {
+            log.warn("[UploadDedupIndex] perceptual hash 계산 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public static class Fingerprint {
+        final Long uno;
+        final String mode;
+        final String sha256;
+        final Long dHash;
+
+        Fingerprint(Long uno, String mode, String sha256, Long dHash) {
+            this.uno = uno;
+            this.mode = mode;
+            this.sha256 = sha256;
+            this.dHash = dHash;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public Long getDHash() {
+            return dHash;
+        }
+    }
+
+    private static class CachedParse {
+        final ParsedPrescriptionData data;
+        final long createdAt;
+
+        CachedParse(ParsedPrescriptionData data, long createdAt) {
+            this.data = data;
+            this.createdAt = createdAt;
+        }
+
+        boolean isExpired(long now, long windowMs) {
+            return now - createdAt > windowMs;
+        }
+    }
+}
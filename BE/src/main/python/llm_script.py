@@ -33,13 +33,13 @@ def match_medicines(ocr_names_json, db_meds_json):
 
     system_prompt = """
     당신은 약사 데이터 매칭 전문가입니다.
-    사용자가 OCR로 스캔한 약품명 리스트와 DB의 약품명(mdno 포함) 리스트를 제공합니다.
+    사용자가 OCR로 스캔한 약품명 리스트와 DB의 후보 약품명(mdno 포함) 리스트를 제공합니다.
     OCR 약품명은 이름이 잘리거나('···') 숫자가 붙어있을 수 있습니다.
-    DB 리스트에서 각 OCR 약품명과 가장 일치하는 약품을 찾아, 해당 약품의 'mdno'를 순서대로 반환해야 합니다.
+    후보 리스트에서 각 OCR 약품명과 가장 일치하는 약품을 찾아, 해당 약품의 'mdno'를 순서대로 반환해야 합니다.
     반드시 'get_matching_mdnos' 함수를 호출하여 결과를 반환해주세요.
     """
 
-    user_prompt = f"OCR로 스캔한 약품명 리스트: {ocr_names_json}\nDB 약품 리스트: {db_meds_json}"
+    user_prompt = f"OCR로 스캔한 약품명 리스트: {ocr_names_json}\nDB 후보 약품 리스트: {db_meds_json}"
 
     try:
         response = openai.chat.completions.create(
@@ -127,6 +127,71 @@ def create_description(med_info, med_desc, warnings_json):
         sys.exit(1)
 
 
+def create_descriptions_batch(items_json):
+    """
+    [Mode 3-1] 처방전 하나의 약품들에 대한 복약 안내 문구를 한 번의 호출로 생성합니다.
+    (Function Calling 사용)
+    items_json: [{"information": ..., "description": ..., "warnings": [...]}, ...]
+    반환: 입력과 같은 순서/개수의 안내 문구 리스트
+    """
+    items = json.loads(items_json)
+
+    function_name = "get_descriptions"
+    function_schema = {
+        "name": function_name,
+        "description": "약품별 복약 안내 문구를 입력 순서대로 반환합니다.",
+        "parameters": {
+            "type": "object",
+            "properties": {
+                "descriptions": {
+                    "type": "array",
+                    "description": f"약품별 복약 안내 문구(한국어) 리스트. 입력 약품 리스트와 순서와 개수({len(items)}개)가 같아야 함.",
+                    "items": {"type": "string"}
+                }
+            },
+            "required": ["descriptions"]
+        }
+    }
+
+    system_prompt = """
+    당신은 환자에게 친절하게 설명하는 약사입니다.
+    약품 리스트의 각 약품에 대해, 약품 정보/약품 설명/병용섭취 주의사항을 조합하여
+    환자가 이해하기 쉬운 하나의 자연스러운 복약 안내 문장을 생성해주세요.
+    (예: 이 약은 ...이며, ...와 함께 복용 시 ...할 수 있으니 주의하세요.)
+    각 안내 문구는 해당 약품의 정보만 사용하고, 다른 설명이나 인사말을 붙이지 마세요.
+    반드시 'get_descriptions' 함수를 호출하여 입력 순서대로 결과를 반환해주세요.
+    """
+
+    lines = []
+    for i, item in enumerate(items, start=1):
+        lines.append(
+            f"[약품 {i}]\n"
+            f"- 약품 정보: {item.get('information')}\n"
+            f"- 약품 설명: {item.get('description')}\n"
+            f"- 병용섭취 주의사항: {json.dumps(item.get('warnings', []), ensure_ascii=False)}"
+        )
+    user_prompt = "\n\n".join(lines)
+
+    try:
+        response = openai.chat.completions.create(
+            model="gpt-4-0613",
+            messages=[
+                {"role": "system", "content": system_prompt},
+                {"role": "user", "content": user_prompt}
+            ],
+            functions=[function_schema],
+            function_call={"name": function_name}
+        )
+
+        arguments = response.choices[0].message.function_call.arguments
+        result_dict = json.loads(arguments) # 예: {"descriptions": ["...", ...]}
+        return result_dict["descriptions"]
+
+    except Exception as e:
+        print(f"Error in create_descriptions_batch: {e}", file=sys.stderr)
+        sys.exit(1)
+
+
 def create_report_summary(report_json):
     """
     [Mode 4] 리포트 전체 데이터를 바탕으로 복약 순응도 + 부작용을 요약한 총평을 생성합니다.
@@ -168,34 +233,49 @@ def create_report_summary(report_json):
         sys.exit(1)
 
 
-if __name__ == "__main__":
-    try:
-        mode = sys.argv[1]
-        output = None
+def run(args):
+    """
+    CLI 인자(mode, ...)를 받아 모드별 결과를 반환합니다. (CLI / 워커 모드 공용)
+    """
+    mode = args[0]
 
-        if mode == "match_meds":
-            ocr_names_json = sys.argv[2]
-            db_meds_json = sys.argv[3]
-            output = match_medicines(ocr_names_json, db_meds_json)
+    if mode == "match_meds":
+        ocr_names_json = args[1]
+        db_meds_json = args[2]
+        return match_medicines(ocr_names_json, db_meds_json)
 
-        elif mode == "category":
-            classifications_json = sys.argv[2]
-            output = get_category(classifications_json)
+    elif mode == "category":
+        classifications_json = args[1]
+        return get_category(classifications_json)
 
-        elif mode == "description":
-            med_info = sys.argv[2]
-            med_desc = sys.argv[3]
-            warnings_json = sys.argv[4]
-            output = create_description(med_info, med_desc, warnings_json)
+    elif mode == "description":
+        med_info = args[1]
+        med_desc = args[2]
+        warnings_json = args[3]
+        return create_description(med_info, med_desc, warnings_json)
 
-        elif mode == "report_summary":
-            report_json = sys.argv[2]
-            output = create_report_summary(report_json)
+    elif mode == "describe_batch":
+        items_json = args[1]
+        return create_descriptions_batch(items_json)
 
-        else:
-            print(f"Invalid mode: {mode}", file=sys.stderr)
-            sys.exit(1)
+    elif mode == "report_summary":
+        report_json = args[1]
+        return create_report_summary(report_json)
 
+    else:
+        print(f"Invalid mode: {mode}", file=sys.stderr)
+        sys.exit(1)
+
+
+if __name__ == "__main__":
+    if len(sys.argv) > 1 and sys.argv[1] == "--worker":
+        # 상주 워커 모드: openai 모듈을 한 번만 import 한 채로 요청을 반복 처리
+        from worker_protocol import serve
+        serve(run)
+        sys.exit(0)
+
+    try:
+        output = run(sys.argv[1:])
         print(json.dumps(output, ensure_ascii=False))
 
     except Exception as e:
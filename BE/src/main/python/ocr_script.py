@@ -12,18 +12,31 @@ NAVER_OCR_SECRET_KEY = os.environ.get("NAVER_OCR_SECRET_KEY")
 INCIZORLENS_API_URL = os.environ.get("INCIZORLENS_API_URL")
 INCIZORLENS_API_KEY = os.environ.get("INCIZORLENS_API_KEY")
 
-def call_document_ocr(img_file):
+def load_image(args, image):
+    """
+    OCR 입력 이미지 bytes와 포맷(png, jpg 등)을 반환합니다.
+    - image가 있으면(워커 바이너리 프레임 / CLI stdin) 그대로 사용, 포맷은 args[2]
+    - 없으면 args[0] 경로의 파일을 읽고, 포맷은 확장자
+    """
+    if image is not None:
+        file_format = args[2] if len(args) > 2 and args[2] else 'png'
+        return image, file_format
+
+    img_file = args[0]
+    file_format = os.path.splitext(img_file)[1][1:]
+    if not file_format:
+        file_format = 'png'
+    with open(img_file, "rb") as f:
+        return f.read(), file_format
+
+
+def call_document_ocr(image_bytes, file_format):
     """
     (1번 모드) 처방전 OCR (IncizorLens API)
     """
     try:
-        # 3. 이미지를 읽어서 Base64로 인코딩
-        with open(img_file, "rb") as image_file:
-            img_base64 = base64.b64encode(image_file.read()).decode('utf-8')
-
-        file_format = os.path.splitext(img_file)[1][1:]
-        if not file_format:
-            file_format = 'png'
+        # 3. 이미지를 Base64로 인코딩
+        img_base64 = base64.b64encode(image_bytes).decode('utf-8')
 
         # 4. API 가이드에 맞는 JSON Payload 생성
         payload = {
@@ -55,13 +68,8 @@ def call_document_ocr(img_file):
         print(f"Python Error in call_document_ocr (Mode 1): {e}", file=sys.stderr)
         return {"error": str(e)}
 
-def call_template_ocr(img_file):
+def call_template_ocr(image_bytes, file_format):
     try:
-        # 파일 확장자 추출 (png, jpg 등)
-        file_format = os.path.splitext(img_file)[1][1:] # .png -> png
-        if not file_format:
-            file_format = 'png' # 기본값
-
         # 1. API 요청 JSON 본문 (테스트 코드와 동일)
         request_json = {
             'images': [
@@ -80,15 +88,14 @@ def call_template_ocr(img_file):
         payload = {'message': json.dumps(request_json).encode('UTF-8')}
         headers = {'X-OCR-SECRET': NAVER_OCR_SECRET_KEY}
 
-        # 3. Java가 넘겨준 이미지 파일 경로(img_file)로 파일 열기
-        with open(img_file, 'rb') as f:
-            files = [('file', f)]
+        # 3. Java가 넘겨준 이미지 bytes를 그대로 multipart 파일로
+        files = [('file', (f"pharmacy_img.{file_format}", image_bytes))]
 
-            # 4. OCR API 호출
-            response = requests.request("POST", NAVER_OCR_API_URL, headers=headers, data=payload, files=files)
+        # 4. OCR API 호출
+        response = requests.request("POST", NAVER_OCR_API_URL, headers=headers, data=payload, files=files)
 
-            # (HTTP 에러가 났는지 체크)
-            response.raise_for_status()
+        # (HTTP 에러가 났는지 체크)
+        response.raise_for_status()
 
         # 5. 성공 시, JSON 결과 반환
         return json.loads(response.text.encode('utf8'))
@@ -99,24 +106,38 @@ def call_template_ocr(img_file):
         return {"error": str(e)}
 
 
-# CLI Interface
-if __name__ == "__main__":
-
-    if len(sys.argv) < 3:
-        print(f"Usage: python {sys.argv[0]} <image_file_path> <mode>", file=sys.stderr)
+def run(args, image=None):
+    """
+    CLI 인자(image_file_path | "-", mode[, format])를 받아 OCR 결과를 반환합니다. (CLI / 워커 모드 공용)
+    - "-": 이미지 bytes를 파일 대신 image로 전달받음 (임시 파일 없음)
+    """
+    if len(args) < 2:
+        print(f"Usage: python {sys.argv[0]} <image_file_path|-> <mode> [format]", file=sys.stderr)
         sys.exit(1)
 
-    img_file = sys.argv[1]
-    mode = sys.argv[2]
+    mode = args[1]
+    image_bytes, file_format = load_image(args, image)
 
     if mode == "1":
         # 처방전 ocr
-        output = call_document_ocr(img_file)
+        return call_document_ocr(image_bytes, file_format)
     elif mode == "2":
         # 약봉투 ocr
-        output = call_template_ocr(img_file)
+        return call_template_ocr(image_bytes, file_format)
     else:
         print(f"Invalid mode: {mode}. Use '1' or '2'", file=sys.stderr)
         sys.exit(1)
 
-    print(json.dumps(output, ensure_ascii=False))
\ No newline at end of file
+
+# CLI Interface
+if __name__ == "__main__":
+
+    if len(sys.argv) > 1 and sys.argv[1] == "--worker":
+        # 상주 워커 모드: requests 모듈을 한 번만 import 한 채로 요청을 반복 처리
+        from worker_protocol import serve
+        serve(run)
+        sys.exit(0)
+
+    from worker_protocol import read_cli_input
+    output = run(sys.argv[1:], read_cli_input())
+    print(json.dumps(output, ensure_ascii=False))
@@ -7,14 +7,25 @@ from google.cloud import texttospeech
 # --- 1. Google Cloud TTS ---
 # 환경변수 GOOGLE_APPLICATION_CREDENTIALS에 서비스 계정 키 파일 경로 설정 필요
 
+# 워커 모드에서는 클라이언트를 한 번만 생성해서 재사용
+_client = None
+
+
+def get_client():
+    global _client
+    if _client is None:
+        _client = texttospeech.TextToSpeechClient()
+    return _client
+
+
 # --- 2. TTS 함수 정의 ---
 def text_to_speech(text, language_code="ko-KR", voice_name="ko-KR-Neural2-C", audio_encoding="MP3", speaking_rate=0.95, pitch=0.0, use_ssml=False):
     """
     텍스트를 음성으로 변환하여 Base64 인코딩된 오디오 데이터를 반환합니다.
     """
     try:
-        # TTS 클라이언트 생성
-        client = texttospeech.TextToSpeechClient()
+        # TTS 클라이언트 (재사용)
+        client = get_client()
         
         # 입력 텍스트 설정
         if use_ssml:
@@ -59,41 +70,49 @@ def text_to_speech(text, language_code="ko-KR", voice_name="ko-KR-Neural2-C", au
         sys.exit(1)
 
 
-# --- 3. (메인 실행부) Java에서 호출 ---
+# --- 3. 모드별 실행 (CLI / 워커 모드 공용) ---
+def run(args):
+    mode = args[0]  # Java가 넘겨준 첫 번째 인자 (mode)
+
+    if mode == "tts":
+        # 인자: text (필수), language_code (선택), voice_name (선택), audio_encoding (선택), speaking_rate (선택), pitch (선택), use_ssml (선택)
+        text = args[1]
+
+        language_code = args[2] if len(args) > 2 else "ko-KR"
+        voice_name = args[3] if len(args) > 3 else "ko-KR-Neural2-C"
+        audio_encoding = args[4] if len(args) > 4 else "MP3"
+        speaking_rate = float(args[5]) if len(args) > 5 else 0.95
+        pitch = float(args[6]) if len(args) > 6 else 0.0  # 자연스러운 음높이
+        use_ssml = args[7].lower() == "true" if len(args) > 7 else False
+
+        # TTS 변환
+        audio_base64 = text_to_speech(text, language_code, voice_name, audio_encoding, speaking_rate, pitch, use_ssml)
+
+        # 결과를 JSON 형식으로 반환
+        return {
+            "audio_base64": audio_base64,
+            "format": audio_encoding.lower()
+        }
+
+    else:
+        print(f"Invalid mode: {mode}", file=sys.stderr)
+        sys.exit(1)
+
+
+# --- 4. (메인 실행부) Java에서 호출 ---
 if __name__ == "__main__":
+    if len(sys.argv) > 1 and sys.argv[1] == "--worker":
+        # 상주 워커 모드: google.cloud.texttospeech 를 한 번만 import 하고 클라이언트를 재사용
+        from worker_protocol import serve
+        serve(run)
+        sys.exit(0)
+
     try:
-        mode = sys.argv[1]  # Java가 넘겨준 첫 번째 인자 (mode)
-        
-        output = None
-        
-        if mode == "tts":
-            # 인자: text (필수), language_code (선택), voice_name (선택), audio_encoding (선택), speaking_rate (선택), pitch (선택), use_ssml (선택)
-            text = sys.argv[2]
-            
-            language_code = sys.argv[3] if len(sys.argv) > 3 else "ko-KR"
-            voice_name = sys.argv[4] if len(sys.argv) > 4 else "ko-KR-Neural2-C"
-            audio_encoding = sys.argv[5] if len(sys.argv) > 5 else "MP3"
-            speaking_rate = float(sys.argv[6]) if len(sys.argv) > 6 else 0.95
-            pitch = float(sys.argv[7]) if len(sys.argv) > 7 else 0.0  # 자연스러운 음높이
-            use_ssml = sys.argv[8].lower() == "true" if len(sys.argv) > 8 else False
-            
-            # TTS 변환
-            audio_base64 = text_to_speech(text, language_code, voice_name, audio_encoding, speaking_rate, pitch, use_ssml)
-            
-            # 결과를 JSON 형식으로 반환 
-            output = {
-                "audio_base64": audio_base64,
-                "format": audio_encoding.lower()
-            }
-            
-        else:
-            print(f"Invalid mode: {mode}", file=sys.stderr)
-            sys.exit(1)
-        
+        output = run(sys.argv[1:])
+
         # Java가 읽을 수 있도록 최종 결과를 JSON 형식으로 stdout에 출력
         print(json.dumps(output, ensure_ascii=False))
-        
+
     except Exception as e:
         print(f"Python script failed: {e}", file=sys.stderr)
         sys.exit(1)
-
@@ -0,0 +1,105 @@
+import io
+import os
+import sys
+import json
+import struct
+import contextlib
+
+# --- 상주 워커(worker) 모드 공통 프로토콜 ---
+# Java(PythonWorker)와 stdin/stdout으로 길이 프레임(4바이트 big-endian 길이 + UTF-8 JSON)을 주고받습니다.
+#   요청: {"id": 1, "args": ["mode", "arg1", ...]}   (CLI 인자와 동일한 순서)
+#         {"id": 2, "ping": true}                    (헬스 체크)
+#         {"id": 3, "args": [...], "input": true}    (바로 뒤에 바이너리 프레임 1개: 4바이트 길이 + 원본 bytes, 예: OCR 이미지)
+#   응답: {"id": 1, "ok": true, "output": "<CLI 모드에서 print 하던 JSON 문자열>"}
+#         {"id": 1, "ok": false, "error": "<stderr 내용>"}
+
+MAX_FRAME_BYTES = 64 * 1024 * 1024
+
+
+def _read_exact(stream, size):
+    buf = b""
+    while len(buf) < size:
+        chunk = stream.read(size - len(buf))
+        if not chunk:
+            return None
+        buf += chunk
+    return buf
+
+
+def _write_frame(stream, payload):
+    data = json.dumps(payload, ensure_ascii=False).encode("utf-8")
+    stream.write(struct.pack(">I", len(data)))
+    stream.write(data)
+    stream.flush()
+
+
+def read_cli_input():
+    """
+    CLI(one-shot) 모드에서 바이너리 입력 읽기: Java가 PYTHON_INPUT_STDIN=1로 실행하면 stdin 전체가 입력
+    """
+    if os.environ.get("PYTHON_INPUT_STDIN") == "1":
+        return sys.stdin.buffer.read()
+    return None
+
+
+def serve(handler):
+    """
+    handler(args) 또는 handler(args, data) -> CLI 모드에서 json.dumps 하던 결과 객체
+    (요청에 "input"이 있으면 뒤따르는 바이너리 프레임을 data로 전달)
+    프로세스가 종료될 때까지(Java가 stdin을 닫을 때까지) 요청을 순서대로 처리합니다.
+    """
+    frame_in = sys.stdin.buffer
+    frame_out = sys.stdout.buffer
+    # 프레임 스트림이 깨지지 않도록, 이후의 모든 print()는 stderr로 보냄
+    sys.stdout = sys.stderr
+
+    while True:
+        header = _read_exact(frame_in, 4)
+        if header is None:
+            break
+        (length,) = struct.unpack(">I", header)
+        if length > MAX_FRAME_BYTES:
+            print(f"Frame too large: {length}", file=sys.stderr)
+            break
+        body = _read_exact(frame_in, length)
+        if body is None:
+            break
+
+        request = json.loads(body.decode("utf-8"))
+        response = {"id": request.get("id")}
+
+        data = None
+        if request.get("input"):
+            data_header = _read_exact(frame_in, 4)
+            if data_header is None:
+                break
+            (data_length,) = struct.unpack(">I", data_header)
+            if data_length > MAX_FRAME_BYTES:
+                print(f"Input frame too large: {data_length}", file=sys.stderr)
+                break
+            data = _read_exact(frame_in, data_length)
+            if data is None:
+                break
+
+        if request.get("ping"):
+            response.update(ok=True, output="pong")
+            _write_frame(frame_out, response)
+            continue
+
+        captured = io.StringIO()
+        try:
+            with contextlib.redirect_stderr(captured):
+                args = request.get("args", [])
+                output = handler(args, data) if data is not None else handler(args)
+            response.update(ok=True, output=json.dumps(output, ensure_ascii=False))
+        except SystemExit as e:
+            # 기존 함수들은 실패 시 sys.exit(1)을 호출하므로, 워커는 죽이지 않고 에러 응답으로 변환
+            response.update(ok=False, error=captured.getvalue().strip() or f"exited with code {e.code}")
+        except Exception as e:
+            response.update(ok=False, error=captured.getvalue().strip() or str(e))
+        finally:
+            if captured.getvalue():
+                sys.stderr.write(captured.getvalue())
+                sys.stderr.flush()
+
+        _write_frame(frame_out, response)
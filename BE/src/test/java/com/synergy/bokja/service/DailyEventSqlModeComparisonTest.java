@@ -0,0 +1,264 @@
+package com.synergy.bokja.service;
+
+import com.synergy.bokja.dto.DailyEventChunkResult;
+import com.synergy.bokja.entity.*;
+import com.synergy.bokja.repository.BatchInsertRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 일간 이벤트 배치 SQL 경로(createDailyEventsForChunkSql)와 Java 경로(createDailyEventsForChunk)의 결과 비교
+ * - 고정 시드로 생성한 사용자/복약 정보/주기/알림 시간/퀴즈 위에서 두 경로를 각각 실행하고 롤백
+ * - 안내 문구, 이벤트(복약 정보·알림 시간·상태·날짜·문구·퀴즈 소속), cur_cycle, 일별 발행 건수, 실행 기록이 같아야 함
+ * - 퀴즈는 두 경로 모두 랜덤이라 qno 대신 "그 복약 정보의 퀴즈인지(없으면 NULL인지)"로 비교
+ * - native 쿼리가 MySQL 문법이라 Testcontainers MySQL에서만 실행 (Docker가 없으면 건너뜀)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EventService.class, BatchInsertRepository.class})
+class DailyEventSqlModeComparisonTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    private static final long SEED = 20251017L;
+    private static final int USER_COUNT = 60;
+    private static final String[] CATEGORIES = {"감기", "고혈압", "당뇨", "위염", "알레르기"};
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private TtsService ttsService;
+
+    @MockitoBean
+    private FcmService fcmService;
+
+    @MockitoBean
+    private NotificationOutboxService notificationOutboxService;
+
+    private TransactionTemplate transactionTemplate;
+    private final List<Long> unos = new ArrayList<>();
+    private final Set<Long> umnosWithQuiz = new HashSet<>();
+    private final Set<Long> issuedAtnos = new HashSet<>();
+    private long maxDno;
+    private long maxEno;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> seed());
+
+        maxDno = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(dno), 0) FROM description_table", Long.class);
+        maxEno = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(eno), 0) FROM event_table", Long.class);
+    }
+
+    @Test
+    void sqlModeProducesSameRowsAsJavaMode() {
+        Snapshot java = runAndRollback(() -> eventService.createDailyEventsForChunk(TODAY, unos));
+        Snapshot sql = runAndRollback(() -> eventService.createDailyEventsForChunkSql(TODAY, unos));
+
+        // 비교가 의미 있도록 Java 경로가 실제로 만든 것이 있는지
+        assertThat(java.eventCount()).isPositive();
+        assertThat(java.events()).hasSize(java.eventCount());
+        assertThat(java.events()).allSatisfy(row -> {
+            assertThat(row.descriptionUmno()).isEqualTo(row.umno());
+            assertThat(row.quizUmno()).isEqualTo(umnosWithQuiz.contains(row.umno()) ? row.umno() : null);
+            assertThat(issuedAtnos).doesNotContain(row.atno());
+        });
+        assertThat(java.batchRunUnos()).containsAll(unos);
+
+        assertThat(sql.eventCount()).isEqualTo(java.eventCount());
+        assertThat(sql.descriptions()).isEqualTo(java.descriptions());
+        assertThat(sql.events()).isEqualTo(java.events());
+        assertThat(sql.curCycles()).isEqualTo(java.curCycles());
+        assertThat(sql.adherence()).isEqualTo(java.adherence());
+        assertThat(sql.batchRunUnos()).isEqualTo(java.batchRunUnos());
+    }
+
+    // 한 경로를 실행하고 결과를 읽은 뒤 롤백 (다음 경로가 같은 데이터에서 시작하도록)
+    private Snapshot runAndRollback(Supplier<DailyEventChunkResult> run) {
+        return transactionTemplate.execute(status -> {
+            DailyEventChunkResult result = run.get();
+            // Java 경로의 cur_cycle 변경(dirty checking)을 JDBC 조회 전에 반영
+            entityManager.flush();
+            Snapshot snapshot = snapshot(result);
+            status.setRollbackOnly();
+            return snapshot;
+        });
+    }
+
+    private Snapshot snapshot(DailyEventChunkResult result) {
+        List<String> descriptions = jdbcTemplate.query(
+                "SELECT umno, enno, description FROM description_table WHERE dno > ? ORDER BY umno",
+                (rs, i) -> rs.getLong("umno") + "|" + rs.getLong("enno") + "|" + rs.getString("description"),
+                maxDno);
+
+        List<EventRow> events = jdbcTemplate.query(
+                "SELECT e.umno, e.atno, e.enno, e.status, e.event_date, d.umno AS description_umno, q.umno AS quiz_umno " +
+                        "FROM event_table e " +
+                        "LEFT JOIN description_table d ON d.dno = e.dno AND d.dno > ? " +
+                        "LEFT JOIN quiz_table q ON q.qno = e.qno " +
+                        "WHERE e.eno > ? ORDER BY e.umno, e.atno",
+                (rs, i) -> new EventRow(
+                        rs.getLong("umno"),
+                        rs.getLong("atno"),
+                        rs.getLong("enno"),
+                        rs.getString("status"),
+                        rs.getObject("event_date", LocalDate.class),
+                        rs.getObject("description_umno", Long.class),
+                        rs.getObject("quiz_umno", Long.class)),
+                maxDno, maxEno);
+
+        Map<Long, Integer> curCycles = new TreeMap<>();
+        jdbcTemplate.query("SELECT umno, cur_cycle FROM cycle_table",
+                rs -> { curCycles.put(rs.getLong("umno"), rs.getObject("cur_cycle", Integer.class)); });
+
+        List<String> adherence = jdbcTemplate.query(
+                "SELECT umno, adherence_date, issued_count, completed_count FROM daily_adherence_table " +
+                        "ORDER BY umno, adherence_date",
+                (rs, i) -> rs.getLong("umno") + "|" + rs.getObject("adherence_date", LocalDate.class) + "|"
+                        + rs.getInt("issued_count") + "|" + rs.getInt("completed_count"));
+
+        List<Long> batchRunUnos = jdbcTemplate.queryForList(
+                "SELECT uno FROM batch_run_table WHERE run_date = ? ORDER BY uno", Long.class, TODAY);
+
+        return new Snapshot(result.getEventCount(), descriptions, events, curCycles, adherence, batchRunUnos);
+    }
+
+    /**
+     * 고정 시드 데이터
+     * - 복약 정보별 주기: 진행 중 / 오늘 시작 / 오늘 종료 / 이미 종료 / 시작 전 / 주기 없음
+     * - 알림 시간 0~4개, 퀴즈 0~3개, cur_cycle NULL 포함
+     * - 실행 기록 없이 오늘 이벤트만 남은 알림 시간, 어제 이벤트, 오늘 집계 행이 이미 있는 복약 정보
+     * - 오늘 실행 기록이 이미 있는 사용자 1명 (두 경로 모두 건너뜀)
+     */
+    private void seed() {
+        Random random = new Random(SEED);
+        LocalDateTime now = LocalDateTime.now().minusHours(1).withNano(0);
+
+        EventNameEntity alarm = persist(EventNameEntity.builder().name("알림").build()); // enno=1
+        List<TimeEntity> times = List.of(
+                persist(TimeEntity.builder().type("breakfast").time(LocalTime.of(8, 0)).build()),
+                persist(TimeEntity.builder().type("lunch").time(LocalTime.of(12, 0)).build()),
+                persist(TimeEntity.builder().type("dinner").time(LocalTime.of(18, 0)).build()),
+                persist(TimeEntity.builder().type("night").time(LocalTime.of(22, 0)).build()));
+        AlarmCombEntity alarmComb = persist(AlarmCombEntity.builder()
+                .breakfast(true).lunch(true).dinner(true).night(true).build());
+
+        for (int u = 0; u < USER_COUNT; u++) {
+            UserEntity user = persist(UserEntity.builder()
+                    .name("사용자" + u).birth(LocalDate.of(1950, 1, 1)).phone(String.format("010%08d", u))
+                    .isActive(true).createdAt(now)
+                    .fcmToken(random.nextInt(3) == 0 ? null : "token-" + u).build());
+            unos.add(user.getUno());
+
+            int medCount = random.nextInt(4);
+            for (int m = 0; m < medCount; m++) {
+                UserMedicineEntity med = persist(UserMedicineEntity.builder()
+                        .user(user).alarmComb(alarmComb).category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                        .hospital("병원" + m).taken(0).createdAt(now).build());
+
+                Integer curCycle = random.nextInt(4) == 0 ? null : random.nextInt(10);
+                switch (random.nextInt(6)) {
+                    case 0 -> cycle(med, TODAY.minusDays(3), TODAY.plusDays(3), curCycle);
+                    case 1 -> cycle(med, TODAY, TODAY.plusDays(6), curCycle);
+                    case 2 -> cycle(med, TODAY.minusDays(6), TODAY, curCycle);
+                    case 3 -> cycle(med, TODAY.minusDays(10), TODAY.minusDays(1), curCycle);
+                    case 4 -> cycle(med, TODAY.plusDays(1), TODAY.plusDays(7), curCycle);
+                    default -> { } // 주기 없음
+                }
+
+                List<TimeEntity> shuffled = new ArrayList<>(times);
+                Collections.shuffle(shuffled, random);
+                List<AlarmTimeEntity> alarmTimes = new ArrayList<>();
+                for (TimeEntity time : shuffled.subList(0, random.nextInt(times.size() + 1))) {
+                    alarmTimes.add(persist(AlarmTimeEntity.builder().userMedicine(med).time(time).build()));
+                }
+
+                int quizCount = random.nextInt(4);
+                for (int q = 0; q < quizCount; q++) {
+                    persist(QuizEntity.builder().userMedicine(med).type("효능").question("퀴즈" + q).build());
+                    umnosWithQuiz.add(med.getUmno());
+                }
+
+                if (!alarmTimes.isEmpty() && random.nextInt(4) == 0) {
+                    AlarmTimeEntity issued = alarmTimes.get(0);
+                    persist(EventEntity.builder()
+                            .userMedicine(med).alarmTime(issued).eventName(alarm)
+                            .status(EventStatus.완료).eventDate(TODAY).createdAt(now).build());
+                    issuedAtnos.add(issued.getAtno());
+                }
+                if (!alarmTimes.isEmpty() && random.nextInt(4) == 0) {
+                    persist(EventEntity.builder()
+                            .userMedicine(med).alarmTime(alarmTimes.get(alarmTimes.size() - 1)).eventName(alarm)
+                            .status(EventStatus.미완료).eventDate(TODAY.minusDays(1)).createdAt(now.minusDays(1))
+                            .build());
+                }
+                if (random.nextInt(4) == 0) {
+                    persist(DailyAdherenceEntity.builder()
+                            .umno(med.getUmno()).adherenceDate(TODAY)
+                            .issuedCount(1).completedCount(1).updatedAt(now).build());
+                }
+            }
+        }
+
+        Long skippedUno = unos.get(random.nextInt(unos.size()));
+        persist(BatchRunEntity.builder().runDate(TODAY).uno(skippedUno).createdAt(now).build());
+    }
+
+    private void cycle(UserMedicineEntity med, LocalDate start, LocalDate end, Integer curCycle) {
+        persist(CycleEntity.builder()
+                .userMedicine(med).totalCycle(28).curCycle(curCycle).saveCycle(0)
+                .startDate(start).endDate(end).build());
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private record EventRow(Long umno, Long atno, Long enno, String status, LocalDate eventDate,
+                            Long descriptionUmno, Long quizUmno) {
+    }
+
+    private record Snapshot(int eventCount, List<String> descriptions, List<EventRow> events,
+                            Map<Long, Integer> curCycles, List<String> adherence, List<Long> batchRunUnos) {
+    }
+}
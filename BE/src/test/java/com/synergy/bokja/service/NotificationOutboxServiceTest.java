@@ -0,0 +1,220 @@
+package com.synergy.bokja.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synergy.bokja.dto.fcm.PushMessage;
+import com.synergy.bokja.entity.NotificationOutboxEntity;
+import com.synergy.bokja.repository.BatchInsertRepository;
+import com.synergy.bokja.repository.NotificationOutboxRepository;
+import com.synergy.bokja.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * outbox 디스패처 → FcmService → StubPushMessagingClient(토큰 접두어로 실패 흉내) 전송 흐름
+ * - 일시적 오류(unavailable:)는 백오프 후 재시도, max-attempts를 넘으면 FAILED
+ * - 해지된 토큰(unregistered:)은 user_table의 fcm_token을 비우고 재시도하지 않음
+ * - 한 번에 보내는 배치는 최대 500건
+ * - 전송은 가져가기(IN_FLIGHT) 트랜잭션이 커밋된 뒤, 트랜잭션 밖에서
+ */
+class NotificationOutboxServiceTest {
+
+    private NotificationOutboxRepository outboxRepository;
+    private UserRepository userRepository;
+    private StubPushMessagingClient pushClient;
+    private PlatformTransactionManager transactionManager;
+    private NotificationOutboxService outboxService;
+
+    // nono → 행 (기록 트랜잭션의 findAllById가 같은 객체를 돌려주도록)
+    private final Map<Long, NotificationOutboxEntity> table = new HashMap<>();
+    private long nextNono = 1;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(NotificationOutboxRepository.class);
+        userRepository = mock(UserRepository.class);
+        pushClient = spy(new StubPushMessagingClient());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        FcmService fcmService = new FcmService(pushClient, userRepository, objectMapper);
+        transactionManager = mock(PlatformTransactionManager.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        when(outboxRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<NotificationOutboxEntity> rows = new ArrayList<>();
+            for (Object nono : (Iterable<?>) invocation.getArgument(0)) {
+                NotificationOutboxEntity row = table.get((Long) nono);
+                if (row != null) rows.add(row);
+            }
+            return rows;
+        });
+
+        outboxService = new NotificationOutboxService(outboxRepository, mock(BatchInsertRepository.class),
+                fcmService, transactionTemplate, objectMapper, Runnable::run);
+        ReflectionTestUtils.setField(outboxService, "dispatchIntervalMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "ratePerSecond", 100);
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "maxBackoffMs", 300000L);
+        ReflectionTestUtils.setField(outboxService, "inFlightLeaseMs", 60000L);
+    }
+
+    @Test
+    void rowsAreClaimedAndCommittedBeforeSendingOutsideTransaction() {
+        NotificationOutboxEntity row = pending(1L, "token-1");
+        when(outboxRepository.lockPending(any(), anyInt())).thenReturn(List.of(row));
+        LocalDateTime before = LocalDateTime.now();
+
+        doAnswer(invocation -> {
+            // 가져가기 트랜잭션은 이미 커밋, 기록 트랜잭션은 아직 시작 전
+            verify(transactionManager, times(1)).getTransaction(any());
+            verify(transactionManager, times(1)).commit(any());
+            assertThat(row.getStatus()).isEqualTo("IN_FLIGHT");
+            assertThat(Duration.between(before, row.getAvailableAt())).isGreaterThanOrEqualTo(Duration.ofSeconds(60));
+            return invocation.callRealMethod();
+        }).when(pushClient).sendEach(anyList());
+
+        outboxService.dispatch();
+
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(row.getStatus()).isEqualTo("DELIVERED");
+        assertThat(row.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void rowNoLongerInFlightIsNotOverwritten() {
+        NotificationOutboxEntity row = pending(1L, "token-1");
+        when(outboxRepository.lockPending(any(), anyInt())).thenReturn(List.of(row));
+        doAnswer(invocation -> {
+            row.setStatus("DELIVERED"); // 임대 만료 후 다른 디스패처가 먼저 결과를 기록한 경우
+            row.setAttempts(1);
+            return invocation.callRealMethod();
+        }).when(pushClient).sendEach(anyList());
+
+        outboxService.dispatch();
+
+        assertThat(row.getStatus()).isEqualTo("DELIVERED");
+        assertThat(row.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void transientTokenIsRetriedWithGrowingBackoffUntilMaxAttempts() {
+        NotificationOutboxEntity row = pending(1L, "unavailable:token-1");
+        when(outboxRepository.lockPending(any(), anyInt())).thenReturn(List.of(row));
+
+        // 1회차: 1s ±20% 뒤로
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.dispatch();
+        assertThat(row.getStatus()).isEqualTo("PENDING");
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getLastError()).isEqualTo("stub unavailable");
+        Duration firstDelay = Duration.between(before, row.getAvailableAt());
+        assertThat(firstDelay).isBetween(Duration.ofMillis(700), Duration.ofMillis(1300));
+
+        // 2회차: 2s ±20% 뒤로
+        before = LocalDateTime.now();
+        outboxService.dispatch();
+        assertThat(row.getStatus()).isEqualTo("PENDING");
+        assertThat(row.getAttempts()).isEqualTo(2);
+        Duration secondDelay = Duration.between(before, row.getAvailableAt());
+        assertThat(secondDelay).isBetween(Duration.ofMillis(1500), Duration.ofMillis(2500));
+
+        // 3회차(max-attempts): 더 이상 재시도하지 않음
+        outboxService.dispatch();
+        assertThat(row.getStatus()).isEqualTo("FAILED");
+        assertThat(row.getAttempts()).isEqualTo(3);
+
+        verify(pushClient, times(3)).sendEach(anyList());
+        verify(userRepository, never()).clearFcmToken(any(), any());
+    }
+
+    @Test
+    void unregisteredTokenIsClearedAndNotRetried() {
+        NotificationOutboxEntity unregistered = pending(7L, "unregistered:token-7");
+        NotificationOutboxEntity delivered = pending(8L, "token-8");
+        when(outboxRepository.lockPending(any(), anyInt())).thenReturn(List.of(unregistered, delivered));
+
+        outboxService.dispatch();
+
+        verify(userRepository).clearFcmToken(7L, "unregistered:token-7");
+        verify(userRepository, never()).clearFcmToken(eq(8L), any());
+        assertThat(unregistered.getStatus()).isEqualTo("FAILED");
+        assertThat(unregistered.getAttempts()).isEqualTo(1);
+        assertThat(delivered.getStatus()).isEqualTo("DELIVERED");
+        assertThat(delivered.getDeliveredAt()).isNotNull();
+    }
+
+    @Test
+    void tokenCleanupFailureDoesNotFailTheBatch() {
+        NotificationOutboxEntity unregistered = pending(7L, "unregistered:token-7");
+        when(outboxRepository.lockPending(any(), anyInt())).thenReturn(List.of(unregistered));
+        when(userRepository.clearFcmToken(any(), any())).thenThrow(new IllegalStateException("db down"));
+
+        outboxService.dispatch();
+
+        assertThat(unregistered.getStatus()).isEqualTo("FAILED");
+        assertThat(unregistered.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatchSendsAtMost500MessagesPerBatch() {
+        ReflectionTestUtils.setField(outboxService, "ratePerSecond", 1200);
+        List<Integer> limits = new ArrayList<>();
+        when(outboxRepository.lockPending(any(), anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(1);
+            limits.add(limit);
+            List<NotificationOutboxEntity> rows = new ArrayList<>(limit);
+            for (int i = 0; i < limit; i++) {
+                rows.add(pending((long) i, "token-" + i));
+            }
+            return rows;
+        });
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<PushMessage> messages = invocation.getArgument(0);
+            batchSizes.add(messages.size());
+            return invocation.callRealMethod();
+        }).when(pushClient).sendEach(anyList());
+
+        outboxService.dispatch();
+
+        assertThat(limits).containsExactlyInAnyOrder(500, 500, 200);
+        assertThat(batchSizes).containsExactlyInAnyOrder(500, 500, 200);
+        assertThat(batchSizes).allMatch(size -> size <= PushMessagingClient.MAX_BATCH_SIZE);
+        assertThat(pushClient.getSentCount()).isEqualTo(1200);
+    }
+
+    private NotificationOutboxEntity pending(Long uno, String token) {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutboxEntity row = NotificationOutboxEntity.builder()
+                .nono(nextNono++)
+                .uno(uno)
+                .token(token)
+                .type("NEW_EVENTS")
+                .title("복약 알림 💊")
+                .body("오늘의 복약 일정이 등록되었습니다!")
+                .dataJson("{\"type\":\"NEW_EVENTS\"}")
+                .status("PENDING")
+                .attempts(0)
+                .availableAt(now)
+                .createdAt(now)
+                .build();
+        table.put(row.getNono(), row);
+        return row;
+    }
+}
@@ -0,0 +1,149 @@
+package com.synergy.bokja.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synergy.bokja.dto.ReportDetailResponseDTO;
+import com.synergy.bokja.dto.ReportListResponseDTO;
+import com.synergy.bokja.dto.ReportSummaryResponseDTO;
+import com.synergy.bokja.entity.*;
+import com.synergy.bokja.python.PythonBridge;
+import com.synergy.bokja.repository.ConditionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 리포트 목록/요약/상세 조회의 SQL 문장 수 예산
+ * - 리포트·복약 정보·약품 수가 늘어나도 문장 수가 그대로여야 함 (리포트/약품별 추가 조회가 생기면 실패)
+ * - 주차별 부작용 집계(countWeeklyEffects)는 MySQL 전용 native 쿼리라 mock으로 두고, 호출이 1번인지만 확인
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ReportService.class)
+class ReportServiceQueryCountTest {
+
+    // 목록: 리포트 + 복약 정보 + 사용자 + 알림 조합 + 주기 fetch join 1번
+    private static final long LIST_BUDGET = 1;
+    // 요약: 리포트 fetch join 1번 + 일별 복약 집계 1번
+    private static final long SUMMARY_BUDGET = 2;
+    // 상세: 리포트 fetch join 1번 + 처방 약품(약품 fetch join) 1번 (+ mock 부작용 집계 1번)
+    private static final long DETAIL_BUDGET = 2;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ConditionRepository conditionRepository;
+
+    @MockitoBean
+    private EffectDictionary effectDictionary;
+
+    @MockitoBean
+    private PythonBridge pythonBridge;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private UserEntity user;
+    private final List<ReportEntity> reports = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = persist(UserEntity.builder()
+                .name("테스트").birth(LocalDate.of(1950, 1, 1)).phone("01012345678")
+                .isActive(true).createdAt(LocalDateTime.now()).build());
+        AlarmCombEntity alarmComb = persist(AlarmCombEntity.builder()
+                .breakfast(true).lunch(false).dinner(true).night(false).build());
+
+        // 복약 정보 3건 × (리포트 1건, 처방 약품 4건)
+        LocalDate start = LocalDate.now().minusDays(20);
+        for (int m = 0; m < 3; m++) {
+            UserMedicineEntity med = persist(UserMedicineEntity.builder()
+                    .user(user).alarmComb(alarmComb).category("감기").hospital("병원" + m)
+                    .taken(2).createdAt(LocalDateTime.now()).build());
+            CycleEntity cycle = persist(CycleEntity.builder()
+                    .userMedicine(med).totalCycle(20).curCycle(10).saveCycle(8)
+                    .startDate(start).endDate(start.plusDays(13)).build());
+            for (int i = 0; i < 4; i++) {
+                MedicineEntity medicine = persist(MedicineEntity.builder()
+                        .name("약품" + m + "-" + i).classification("해열진통제").description("설명")
+                        .image("image").ingredient("성분").information("정보").build());
+                persist(UserMedicineItemEntity.builder().userMedicine(med).medicine(medicine).build());
+            }
+            for (int d = 0; d < 14; d++) {
+                persist(DailyAdherenceEntity.builder()
+                        .umno(med.getUmno()).adherenceDate(start.plusDays(d))
+                        .issuedCount(2).completedCount(d % 3).updatedAt(LocalDateTime.now()).build());
+            }
+            reports.add(persist(ReportEntity.builder()
+                    .userMedicine(med).cycle(cycle).description("총평").build()));
+        }
+
+        // 조회가 영속성 컨텍스트가 아닌 DB에서 일어나도록
+        entityManager.flush();
+        entityManager.clear();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getUno(), null, List.of()));
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getUserReportsStaysWithinStatementBudget() {
+        ReportListResponseDTO response = reportService.getUserReports(user.getUno());
+
+        assertThat(response.getReport_list()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(LIST_BUDGET);
+    }
+
+    @Test
+    void getReportSummaryStaysWithinStatementBudget() {
+        ReportSummaryResponseDTO response = reportService.getReportSummary(reports.get(0).getRno());
+
+        assertThat(response.getColors()).hasSize(14);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(SUMMARY_BUDGET);
+    }
+
+    @Test
+    void getReportDetailStaysWithinStatementBudget() {
+        ReportDetailResponseDTO response = reportService.getReportDetail(reports.get(0).getRno());
+
+        assertThat(response.getMedicine()).hasSize(4);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(DETAIL_BUDGET);
+        verify(conditionRepository, times(1)).countWeeklyEffects(anyLong(), any(), any(), any());
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}